@@ -7,8 +7,8 @@ import org.bukkit.command.PluginCommand;
 import org.jetbrains.annotations.Nullable;
 import pers.neige.colonel.context.Context;
 import pers.neige.colonel.node.Node;
-import pers.neige.colonel.node.ParsedNode;
-import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.permission.CommandPermissions;
+import pers.neige.colonel.permission.PermissionCache;
 import pers.neige.colonel.reader.StringReader;
 
 import java.util.ArrayList;
@@ -21,30 +21,6 @@ import java.util.function.Function;
  */
 @SuppressWarnings("unused")
 public class CommandProcessor {
-    private static @NonNull String getPermission(@NonNull String commandName, @Nullable Context<CommandSender, ?> context) {
-        val permission = new StringBuilder(commandName);
-        permission.append(".command");
-        if (context == null) return permission.toString();
-        for (ParsedNode<CommandSender, ?, ?> parsedNode : context.getNodeChain().getNodes()) {
-            if (parsedNode.getNode() instanceof LiteralNode) {
-                permission.append(".");
-                permission.append(parsedNode.getNode().getId());
-            }
-        }
-        return permission.toString();
-    }
-
-    private static @NonNull String getCommandText(String @NonNull [] args) {
-        val builder = new StringBuilder();
-        for (int index = 0; index < args.length; index++) {
-            if (index > 0) {
-                builder.append(" ");
-            }
-            builder.append(args[index]);
-        }
-        return builder.toString();
-    }
-
     /**
      * 以节点接替Bukkit指令的执行器和补全器
      *
@@ -65,12 +41,31 @@ public class CommandProcessor {
      * @param defExecutor          默认执行器
      */
     public static <R> void processCommand(@NonNull PluginCommand command, @NonNull Node<CommandSender, R> root, @Nullable BiFunction<Context<CommandSender, R>, String, R> noPermissionExecutor, @Nullable Function<Context<CommandSender, R>, R> defExecutor) {
+        processCommand(command, root, noPermissionExecutor, defExecutor, new CommandPermissions(command.getName(), root, null));
+    }
+
+    /**
+     * 以节点接替Bukkit指令的执行器和补全器<br>
+     * 权限节点由 {@code permissions} 预先计算, 需要缓存权限检查结果时应在创建权限表时传入 {@link PermissionCache}
+     *
+     * @param command              Bukkit指令对象
+     * @param root                 根节点
+     * @param noPermissionExecutor 无权限执行器
+     * @param defExecutor          默认执行器
+     * @param permissions          指令权限表
+     */
+    public static <R> void processCommand(
+        @NonNull PluginCommand command,
+        @NonNull Node<CommandSender, R> root,
+        @Nullable BiFunction<Context<CommandSender, R>, String, R> noPermissionExecutor,
+        @Nullable Function<Context<CommandSender, R>, R> defExecutor,
+        @NonNull CommandPermissions permissions
+    ) {
         val tabPermission = command.getName() + ".command.tab";
         command.setExecutor((sender, it, label, args) -> {
-            val text = getCommandText(args).trim();
-            val context = root.parseExecuteContext(StringReader.of(text, ' ', '\\'), sender);
-            val permission = getPermission(command.getName().toLowerCase(), context);
-            if (!sender.hasPermission(permission)) {
+            val context = root.parseExecuteContext(StringReader.ofArguments(args, ' ', '\\', true), sender);
+            val permission = permissions.getPermission(context);
+            if (!permissions.hasPermission(sender, permission)) {
                 if (noPermissionExecutor != null) {
                     noPermissionExecutor.apply(context, permission);
                 }
@@ -80,13 +75,11 @@ public class CommandProcessor {
             return true;
         });
         command.setTabCompleter((sender, it, label, args) -> {
-            if (!sender.hasPermission(tabPermission)) {
+            if (!permissions.hasPermission(sender, tabPermission)) {
                 return new ArrayList<>();
             }
-            val text = getCommandText(args);
-            val context = root.parseTabContext(StringReader.of(text, ' ', '\\'), sender);
-            val permission = getPermission(command.getName().toLowerCase(), context);
-            if (!sender.hasPermission(permission)) {
+            val context = root.parseTabContext(StringReader.ofArguments(args, ' ', '\\', false), sender);
+            if (!permissions.hasPermission(sender, context)) {
                 return new ArrayList<>();
             }
             return context == null ? Collections.emptyList() : context.tab();
@@ -6,8 +6,10 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 import pers.neige.colonel.arguments.Argument;
 import pers.neige.colonel.arguments.ParseResult;
+import pers.neige.colonel.context.CompletionSink;
 import pers.neige.colonel.context.Context;
 import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.player.PlayerNameIndex;
 import pers.neige.colonel.reader.StringReader;
 
 import java.util.ArrayList;
@@ -15,6 +17,9 @@ import java.util.List;
 
 /**
  * 玩家参数类型
+ * <p>
+ * 设置了 {@link PlayerNameIndex} 时, 解析与补全均通过索引完成, 补全开销与匹配的玩家数量成正比;<br>
+ * 否则直接调用 Bukkit 接口, 补全时遍历全部在线玩家。
  */
 @Getter
 @Builder
@@ -28,15 +33,35 @@ public class PlayerArgument<S, R> extends Argument<S, Player, R> {
      */
     @Builder.Default
     private final boolean nonnull = true;
+    /**
+     * 在线玩家名索引, 为 null 时直接调用 Bukkit 接口<br>
+     * 默认值 {@code null}
+     */
+    @Builder.Default
+    private final @Nullable PlayerNameIndex index = null;
+    /**
+     * 允许只输入玩家名的开头部分, 规则与 {@link Bukkit#getPlayer(String)} 一致, 精确匹配与 {@code me} 优先<br>
+     * 默认值 {@code false}
+     */
+    @Builder.Default
+    private final boolean partial = false;
+
+    public PlayerArgument(boolean nonnull) {
+        this(nonnull, null, false);
+    }
 
     @Override
     public @NonNull ParseResult<Player> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
         val start = input.getOffset();
         val name = input.readString();
-        var player = Bukkit.getPlayerExact(name);
+        val index = this.index;
+        var player = index == null ? Bukkit.getPlayerExact(name) : index.getExact(name);
         if (player == null && "me".equals(name) && source instanceof Player) {
             player = (Player) source;
         }
+        if (player == null && partial) {
+            player = index == null ? Bukkit.getPlayer(name) : index.getPartial(name);
+        }
         if (player == null && nonnull) {
             input.setOffset(start);
             return new ParseResult<>(null, false);
@@ -51,6 +76,11 @@ public class PlayerArgument<S, R> extends Argument<S, Player, R> {
         if ("me".startsWith(remaining)) {
             result.add("me");
         }
+        val index = this.index;
+        if (index != null) {
+            result.addAll(index.tab(remaining, Integer.MAX_VALUE));
+            return result;
+        }
         for (val player : Bukkit.getOnlinePlayers()) {
             if (player.getName().toLowerCase().startsWith(remaining)) {
                 result.add(player.getName());
@@ -58,4 +88,16 @@ public class PlayerArgument<S, R> extends Argument<S, Player, R> {
         }
         return result;
     }
+
+    @Override
+    public void tab(@NonNull Context<S, R> context, @NonNull String remaining, @NonNull CompletionSink sink) {
+        val index = this.index;
+        if (index == null) {
+            sink.addAll(tab(context, remaining));
+            return;
+        }
+        remaining = remaining.toLowerCase();
+        if ("me".startsWith(remaining) && !sink.add("me")) return;
+        index.tab(remaining, sink);
+    }
 }
@@ -0,0 +1,209 @@
+package pers.neige.colonel.permission;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.node.ParsedNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 指令权限表
+ * <p>
+ * 权限节点的格式为 {@code 指令名.command.字面量1.字面量2...}, 参数节点不影响权限节点。<br>
+ * 创建时为根节点下的每个节点预先计算权限节点, 检查权限时直接根据节点链的最后一个节点查表, 不再逐次拼接字符串。<br>
+ * 根节点的修改次数发生变化时（例如运行时增删子节点）, 下一次查询会重新计算整张表。
+ */
+@SuppressWarnings("unused")
+public class CommandPermissions {
+    /**
+     * 根节点
+     */
+    @Getter
+    private final @NonNull Node<CommandSender, ?> root;
+    /**
+     * 基础权限节点, 即 {@code 指令名.command}
+     */
+    @Getter
+    private final @NonNull String basePermission;
+    /**
+     * 补全权限节点, 即 {@code 指令名.command.tab}
+     */
+    @Getter
+    private final @NonNull String tabPermission;
+    /**
+     * 权限检查结果缓存, 为 null 时不启用
+     */
+    @Getter
+    private final @Nullable PermissionCache cache;
+    /**
+     * 节点对应的权限节点
+     */
+    private final @NonNull Map<Node<?, ?>, String> permissions = new ConcurrentHashMap<>();
+    /**
+     * 计算权限表时根节点的修改次数
+     */
+    private volatile int modCount;
+
+    /**
+     * @param commandName 指令名
+     * @param root        根节点
+     * @param cache       权限检查结果缓存, 为 null 时不启用
+     */
+    public CommandPermissions(@NonNull String commandName, @NonNull Node<CommandSender, ?> root, @Nullable PermissionCache cache) {
+        this.root = root;
+        this.basePermission = commandName.toLowerCase() + ".command";
+        this.tabPermission = basePermission + ".tab";
+        this.cache = cache;
+        rebuild();
+    }
+
+    /**
+     * 获取解析上下文对应的权限节点
+     *
+     * @param context 解析上下文, 为 null 时返回基础权限节点
+     * @return 权限节点
+     */
+    public @NonNull String getPermission(@Nullable Context<CommandSender, ?> context) {
+        if (context == null) return basePermission;
+        if (modCount != root.getModCount()) {
+            rebuild();
+        }
+        val node = context.lastNode();
+        val permission = permissions.get(node);
+        if (permission != null) return permission;
+        // 解析起点不是根节点, 或节点在计算权限表之后才被接入
+        val builder = new StringBuilder(basePermission);
+        for (ParsedNode<CommandSender, ?, ?> parsedNode : context.getNodeChain().getNodes()) {
+            if (parsedNode.getNode() instanceof LiteralNode) {
+                builder.append('.').append(parsedNode.getNode().getId());
+            }
+        }
+        val built = builder.toString();
+        permissions.put(node, built);
+        return built;
+    }
+
+    /**
+     * 检查执行者是否拥有权限, 启用缓存时优先读取缓存
+     *
+     * @param sender     执行者
+     * @param permission 权限节点
+     * @return 是否拥有权限
+     */
+    public boolean hasPermission(@NonNull CommandSender sender, @NonNull String permission) {
+        val cache = this.cache;
+        return cache == null ? sender.hasPermission(permission) : cache.hasPermission(sender, permission);
+    }
+
+    /**
+     * 检查执行者是否拥有解析上下文对应的权限
+     *
+     * @param sender  执行者
+     * @param context 解析上下文
+     * @return 是否拥有权限
+     */
+    public boolean hasPermission(@NonNull CommandSender sender, @Nullable Context<CommandSender, ?> context) {
+        return hasPermission(sender, getPermission(context));
+    }
+
+    /**
+     * 将权限表注册为 Bukkit 权限, 子权限挂在上一级字面量的权限之下, 拥有上级权限即拥有全部下级权限<br>
+     * 已存在的同名权限不会被覆盖, 但依然会被挂在上级权限之下
+     *
+     * @param permissionDefault 新注册权限的默认值
+     */
+    public void registerPermissions(@NonNull PermissionDefault permissionDefault) {
+        if (modCount != root.getModCount()) {
+            rebuild();
+        }
+        val registered = new LinkedHashSet<Permission>();
+        val base = register(basePermission, permissionDefault, registered);
+        base.getChildren().put(register(tabPermission, permissionDefault, registered).getName(), true);
+        val stack = new ArrayDeque<Node<?, ?>>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            val node = stack.pop();
+            val parent = register(permissions.get(node), permissionDefault, registered);
+            for (val child : node.getChildNodes().values()) {
+                stack.push(child);
+                if (child instanceof LiteralNode) {
+                    parent.getChildren().put(permissions.get(child), true);
+                }
+            }
+        }
+        for (val permission : registered) {
+            permission.recalculatePermissibles();
+        }
+    }
+
+    /**
+     * 为根节点下的每个字面量节点设置访问条件, 执行者缺少对应权限时, 该字面量既不会被补全, 也不会被匹配<br>
+     * 可配合 {@link pers.neige.colonel.node.AccessViews} 按权限组缓存裁剪后的节点树
+     */
+    public void applyRequirements() {
+        if (modCount != root.getModCount()) {
+            rebuild();
+        }
+        val literals = new LinkedHashSet<Node<CommandSender, ?>>();
+        val stack = new ArrayDeque<Node<CommandSender, ?>>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            val node = stack.pop();
+            for (val child : node.getChildNodes().values()) {
+                stack.push(child);
+                if (child instanceof LiteralNode) {
+                    literals.add(child);
+                }
+            }
+        }
+        for (val literal : literals) {
+            val permission = permissions.get(literal);
+            literal.setRequirement(sender -> sender == null || hasPermission(sender, permission));
+        }
+    }
+
+    private static @NonNull Permission register(@NonNull String name, @NonNull PermissionDefault permissionDefault, @NonNull Set<Permission> registered) {
+        val pluginManager = Bukkit.getPluginManager();
+        var permission = pluginManager.getPermission(name);
+        if (permission == null) {
+            permission = new Permission(name, permissionDefault);
+            pluginManager.addPermission(permission);
+        }
+        registered.add(permission);
+        return permission;
+    }
+
+    /**
+     * 重新计算整张权限表
+     */
+    private synchronized void rebuild() {
+        val currentModCount = root.getModCount();
+        permissions.clear();
+        permissions.put(root, basePermission);
+        val stack = new ArrayDeque<Node<?, ?>>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            val node = stack.pop();
+            val permission = permissions.get(node);
+            for (val child : node.getChildNodes().values()) {
+                permissions.put(child, child instanceof LiteralNode ? permission + "." + child.getId() : permission);
+                stack.push(child);
+            }
+        }
+        modCount = currentModCount;
+    }
+}
@@ -0,0 +1,130 @@
+package pers.neige.colonel.permission;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 玩家权限检查结果缓存
+ * <p>
+ * 以玩家 UUID 为键缓存 {@link Player#hasPermission(String)} 的结果, 非玩家的执行者不经过缓存。<br>
+ * Bukkit 没有统一的权限重算事件, 因此缓存条目在 {@link PermissionCache#getExpireMillis()} 毫秒后过期;<br>
+ * 玩家退出或切换世界时清除该玩家的缓存, 权限插件的重算事件（例如用户数据更新）应调用 {@link PermissionCache#invalidate(UUID)}。
+ */
+@SuppressWarnings("unused")
+public class PermissionCache implements Listener {
+    /**
+     * 缓存条目的有效时长（毫秒）
+     */
+    @Getter
+    private final long expireMillis;
+    /**
+     * 每个玩家的缓存
+     */
+    private final @NonNull Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param expireMillis 缓存条目的有效时长（毫秒）
+     */
+    public PermissionCache(long expireMillis) {
+        if (expireMillis <= 0) {
+            throw new IllegalArgumentException("expireMillis must be greater than 0");
+        }
+        this.expireMillis = expireMillis;
+    }
+
+    /**
+     * 创建缓存并注册玩家退出及切换世界的监听器
+     *
+     * @param plugin       注册监听器的插件
+     * @param expireMillis 缓存条目的有效时长（毫秒）
+     * @return 权限检查结果缓存
+     */
+    public static @NonNull PermissionCache register(@NonNull Plugin plugin, long expireMillis) {
+        val cache = new PermissionCache(expireMillis);
+        plugin.getServer().getPluginManager().registerEvents(cache, plugin);
+        return cache;
+    }
+
+    /**
+     * 检查执行者是否拥有权限
+     *
+     * @param sender     执行者
+     * @param permission 权限节点
+     * @return 是否拥有权限
+     */
+    public boolean hasPermission(@NonNull CommandSender sender, @NonNull String permission) {
+        if (!(sender instanceof Player)) {
+            return sender.hasPermission(permission);
+        }
+        val uuid = ((Player) sender).getUniqueId();
+        val now = System.currentTimeMillis();
+        var entry = entries.get(uuid);
+        if (entry == null || entry.expireAt <= now) {
+            entry = new Entry(now + expireMillis);
+            entries.put(uuid, entry);
+        }
+        val cached = entry.results.get(permission);
+        if (cached != null) return cached;
+        val result = sender.hasPermission(permission);
+        entry.results.put(permission, result);
+        return result;
+    }
+
+    /**
+     * 清除玩家的缓存
+     *
+     * @param uuid 玩家 UUID
+     */
+    public void invalidate(@NonNull UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    /**
+     * 清除全部缓存
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(@NonNull PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(@NonNull PlayerChangedWorldEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * 单个玩家的缓存
+     */
+    private static final class Entry {
+        /**
+         * 过期时间戳
+         */
+        private final long expireAt;
+        /**
+         * 权限节点对应的检查结果
+         */
+        private final @NonNull Map<String, Boolean> results = new ConcurrentHashMap<>();
+
+        private Entry(long expireAt) {
+            this.expireAt = expireAt;
+        }
+    }
+}
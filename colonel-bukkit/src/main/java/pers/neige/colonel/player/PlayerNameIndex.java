@@ -0,0 +1,159 @@
+package pers.neige.colonel.player;
+
+import lombok.NonNull;
+import lombok.val;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.trie.LiteralTrie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在线玩家名索引
+ * <p>
+ * 以忽略大小写的 {@link LiteralTrie} 存储在线玩家, 玩家加入或退出时增量更新。<br>
+ * 前缀补全只访问前缀所在的子树, 开销与匹配的玩家数量成正比, 与在线人数无关。
+ * <p>
+ * 每次更新都修改前缀树的副本（{@link LiteralTrie#copy()} 只复制修改路径上的节点）后整体发布, 读取无需加锁, 可在异步补全线程中使用。
+ */
+@SuppressWarnings("unused")
+public class PlayerNameIndex implements Listener {
+    /**
+     * 当前发布的前缀树, 发布后不再修改
+     */
+    private volatile @NonNull LiteralTrie<Player> trie = new LiteralTrie<>();
+
+    /**
+     * 创建索引, 写入当前在线的玩家并注册玩家加入及退出的监听器
+     *
+     * @param plugin 注册监听器的插件
+     * @return 在线玩家名索引
+     */
+    public static @NonNull PlayerNameIndex register(@NonNull Plugin plugin) {
+        val index = new PlayerNameIndex();
+        plugin.getServer().getPluginManager().registerEvents(index, plugin);
+        index.rebuild();
+        return index;
+    }
+
+    /**
+     * 根据当前在线玩家重建索引
+     */
+    public synchronized void rebuild() {
+        val next = new LiteralTrie<Player>();
+        for (val player : Bukkit.getOnlinePlayers()) {
+            next.put(player.getName(), player);
+        }
+        trie = next;
+    }
+
+    /**
+     * 添加玩家, 同名玩家已存在时覆盖
+     *
+     * @param player 玩家
+     */
+    public synchronized void add(@NonNull Player player) {
+        val next = trie.copy();
+        next.put(player.getName(), player);
+        trie = next;
+    }
+
+    /**
+     * 移除玩家, 同名的索引项已被其他玩家占用时保持不变
+     *
+     * @param player 玩家
+     */
+    public synchronized void remove(@NonNull Player player) {
+        val current = trie.get(player.getName());
+        if (current == null || !current.getUniqueId().equals(player.getUniqueId())) return;
+        val next = trie.copy();
+        next.remove(player.getName());
+        trie = next;
+    }
+
+    /**
+     * @return 在线玩家数量
+     */
+    public int size() {
+        return trie.getSize();
+    }
+
+    /**
+     * 根据玩家名精确查找 (忽略大小写)
+     *
+     * @param name 玩家名
+     * @return 玩家, 不存在则返回 null
+     */
+    public @Nullable Player getExact(@NonNull String name) {
+        return trie.get(name);
+    }
+
+    /**
+     * 根据玩家名查找, 与 {@link Bukkit#getPlayer(String)} 规则一致<br>
+     * 优先精确匹配, 否则返回以该文本开头且名称最短的玩家
+     *
+     * @param name 玩家名或玩家名前缀
+     * @return 玩家, 不存在则返回 null
+     */
+    public @Nullable Player getPartial(@NonNull String name) {
+        val trie = this.trie;
+        val exact = trie.get(name);
+        if (exact != null) return exact;
+        val found = new Player[1];
+        trie.forEachWithPrefix(name, entry -> {
+            val player = found[0];
+            if (player == null || entry.getKey().length() < player.getName().length()) {
+                found[0] = entry.getValue();
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    /**
+     * 补全以指定前缀开头的玩家名 (忽略大小写), 按小写玩家名的字典序排列
+     *
+     * @param prefix 前缀
+     * @param limit  最大数量
+     * @return 玩家名
+     */
+    public @NonNull List<String> tab(@NonNull String prefix, int limit) {
+        val result = new ArrayList<String>();
+        if (limit <= 0) return result;
+        trie.forEachWithPrefix(prefix, entry -> {
+            result.add(entry.getValue().getName());
+            return result.size() < limit;
+        });
+        return result;
+    }
+
+    /**
+     * 补全以指定前缀开头的玩家名 (忽略大小写), 收集器已满时立即停止
+     *
+     * @param prefix 前缀
+     * @param sink   补全结果收集器
+     */
+    public void tab(@NonNull String prefix, @NonNull CompletionSink sink) {
+        if (sink.isFull()) return;
+        trie.forEachWithPrefix(prefix, entry -> sink.add(entry.getValue().getName()));
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(@NonNull PlayerJoinEvent event) {
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(@NonNull PlayerQuitEvent event) {
+        remove(event.getPlayer());
+    }
+}
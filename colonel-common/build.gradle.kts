@@ -1,4 +0,0 @@
-dependencies {
-    // multiple-string-searcher
-    implementation("org.neosearch.stringsearcher:multiple-string-searcher:0.1.1")
-}
@@ -9,7 +9,9 @@ import pers.neige.colonel.node.impl.LiteralNode;
 import pers.neige.colonel.node.impl.RootNode;
 import pers.neige.colonel.reader.StringReader;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -20,10 +22,10 @@ import java.util.concurrent.TimeUnit;
  * <p>测试结论：
  * <ul>
  *   <li>参数的数量对解析速度没有影响</li>
- *   <li>参数存在分隔符时解析速度变慢，大约为普通状态下的50%</li>
+ *   <li>参数存在分隔符时解析速度与普通状态基本一致（基于字面量前缀树匹配）</li>
  * </ul>
  * <p>
- * 需要注意的是，对于大量参数的情况，建议统一构建字符搜索器，不然 Node 初始化的过程将非常耗时
+ * 逐个接续字面量时前缀树增量更新，大量参数的初始化耗时与参数数量线性相关
  * <p>
  */
 @BenchmarkMode(Mode.Throughput)
@@ -70,17 +72,19 @@ public class NodeBenchmark {
 
         specialBigNode = new RootNode<String, String>("root")
             .then(LiteralNode.<String, String>literal("allow separator literal").then(LiteralNode.literal("world2")));
-        for (int index = 0; index < 10000; index++) {
-            specialBigNode.then(LiteralNode.literal(UUID.randomUUID().toString()), false);
-        }
-        specialBigNode.buildLiteralSearcher();
+        specialBigNode.thenLiterals(randomLiterals(10000));
 
         normalBigNode = new RootNode<String, String>("root")
             .then(LiteralNode.<String, String>literal("allow-separator-literal").then(LiteralNode.literal("world2")));
-        for (int index = 0; index < 10000; index++) {
-            normalBigNode.then(LiteralNode.literal(UUID.randomUUID().toString()), false);
+        normalBigNode.thenLiterals(randomLiterals(10000));
+    }
+
+    private static List<LiteralNode<String, String, String>> randomLiterals(int size) {
+        List<LiteralNode<String, String, String>> literals = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            literals.add(LiteralNode.literal(UUID.randomUUID().toString()));
         }
-        normalBigNode.buildLiteralSearcher();
+        return literals;
     }
 
     // @Benchmark
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
 import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.CompletionSink;
 import pers.neige.colonel.context.Context;
 import pers.neige.colonel.context.NodeChain;
 import pers.neige.colonel.reader.StringReader;
@@ -20,6 +21,20 @@ import java.util.stream.Collectors;
  */
 @SuppressWarnings("unused")
 public abstract class Argument<S, A, R> {
+    /**
+     * 参数类型是否覆盖了 {@link Argument#tab(Context, String)}
+     */
+    private static final ClassValue<Boolean> TAB_OVERRIDDEN = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("tab", Context.class, String.class).getDeclaringClass() != Argument.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     protected @Nullable A defaultValue;
     protected @Nullable Function<S, ParseResult<A>> defaultValueGetter;
     protected boolean hasDefaultValue;
@@ -100,6 +115,16 @@ public abstract class Argument<S, A, R> {
         return new ParseResult<>(defaultValue, this.hasDefaultValue);
     }
 
+    /**
+     * 解析结果是否只由输入文本决定, 与执行源及外部状态无关<br>
+     * 路径上的参数全部满足该条件时, 解析结果可以被 {@link pers.neige.colonel.context.ParseCache} 缓存
+     *
+     * @return 解析结果是否与执行源无关
+     */
+    public boolean isSourceIndependent() {
+        return false;
+    }
+
     /**
      * 参数解析方法，解析失败时 ParseResult#success 应为 false, 且 StringReader#offset 应保持读取前状态
      *
@@ -121,6 +146,25 @@ public abstract class Argument<S, A, R> {
         return rawTab(context, remaining).stream().filter(text -> text.toLowerCase().startsWith(lowerCaseRemaining)).collect(Collectors.toList());
     }
 
+    /**
+     * 根据剩余文本进行参数补全, 收集器已满时立即停止<br>
+     * 默认实现逐个遍历 {@link Argument#rawTab(Context, String)} 的结果并过滤, 若子类覆盖了 {@link Argument#tab(Context, String)}, 则以其结果为准
+     *
+     * @param context   执行上下文
+     * @param remaining 剩余文本
+     * @param sink      补全结果收集器
+     */
+    public void tab(@NonNull Context<S, R> context, @NonNull String remaining, @NonNull CompletionSink sink) {
+        if (TAB_OVERRIDDEN.get(getClass())) {
+            sink.addAll(tab(context, remaining));
+            return;
+        }
+        val lowerCaseRemaining = remaining.toLowerCase();
+        for (val text : rawTab(context, remaining)) {
+            if (!sink.addIfMatches(text, lowerCaseRemaining)) return;
+        }
+    }
+
     /**
      * 根据剩余文本进行参数补全, 可以出现不以剩余文本开头的补全文本
      *
@@ -0,0 +1,54 @@
+package pers.neige.colonel.arguments;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 布尔量参数解析结果, 所有实例均为共享常量
+ */
+@SuppressWarnings("unused")
+public class BooleanParseResult extends ParseResult<Boolean> {
+    /**
+     * 无法识别时的解析结果, 解析值为 null
+     */
+    public static final BooleanParseResult FAILURE = new BooleanParseResult(false, false);
+    /**
+     * 解析值为 {@code true} 的成功结果
+     */
+    public static final BooleanParseResult TRUE = new BooleanParseResult(true, true);
+    /**
+     * 解析值为 {@code false} 的成功结果
+     */
+    public static final BooleanParseResult FALSE = new BooleanParseResult(false, true);
+
+    /**
+     * 解析值
+     */
+    private final boolean value;
+
+    private BooleanParseResult(boolean value, boolean success) {
+        super(null, success);
+        this.value = value;
+    }
+
+    /**
+     * 获取解析成功的结果
+     *
+     * @param value 解析值
+     * @return 解析结果
+     */
+    public static BooleanParseResult of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * @return 解析值, 无法识别时为 {@code false}
+     */
+    public boolean getBoolean() {
+        return value;
+    }
+
+    @Override
+    public @Nullable Boolean getResult() {
+        return isSuccess() ? value : null;
+    }
+}
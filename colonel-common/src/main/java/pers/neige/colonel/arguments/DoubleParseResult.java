@@ -0,0 +1,51 @@
+package pers.neige.colonel.arguments;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 双精度浮点参数解析结果, 以基本类型存储解析值, 仅在调用 {@link DoubleParseResult#getResult()} 时装箱
+ */
+@SuppressWarnings("unused")
+public class DoubleParseResult extends ParseResult<Double> {
+    /**
+     * 无法识别时的解析结果, 解析值为 null
+     */
+    public static final DoubleParseResult FAILURE = new DoubleParseResult();
+
+    /**
+     * 解析值
+     */
+    private final double value;
+    /**
+     * 是否存在解析值
+     */
+    private final boolean present;
+
+    /**
+     * @param value   解析值
+     * @param success 是否解析成功
+     */
+    public DoubleParseResult(double value, boolean success) {
+        super(null, success);
+        this.value = value;
+        this.present = true;
+    }
+
+    private DoubleParseResult() {
+        super(null, false);
+        this.value = 0;
+        this.present = false;
+    }
+
+    /**
+     * @return 解析值, 无法识别时为 0
+     */
+    public double getDouble() {
+        return value;
+    }
+
+    @Override
+    public @Nullable Double getResult() {
+        return present ? value : null;
+    }
+}
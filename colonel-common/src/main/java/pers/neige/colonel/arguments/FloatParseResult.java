@@ -0,0 +1,51 @@
+package pers.neige.colonel.arguments;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 单精度浮点参数解析结果, 以基本类型存储解析值, 仅在调用 {@link FloatParseResult#getResult()} 时装箱
+ */
+@SuppressWarnings("unused")
+public class FloatParseResult extends ParseResult<Float> {
+    /**
+     * 无法识别时的解析结果, 解析值为 null
+     */
+    public static final FloatParseResult FAILURE = new FloatParseResult();
+
+    /**
+     * 解析值
+     */
+    private final float value;
+    /**
+     * 是否存在解析值
+     */
+    private final boolean present;
+
+    /**
+     * @param value   解析值
+     * @param success 是否解析成功
+     */
+    public FloatParseResult(float value, boolean success) {
+        super(null, success);
+        this.value = value;
+        this.present = true;
+    }
+
+    private FloatParseResult() {
+        super(null, false);
+        this.value = 0;
+        this.present = false;
+    }
+
+    /**
+     * @return 解析值, 无法识别时为 0
+     */
+    public float getFloat() {
+        return value;
+    }
+
+    @Override
+    public @Nullable Float getResult() {
+        return present ? value : null;
+    }
+}
@@ -0,0 +1,51 @@
+package pers.neige.colonel.arguments;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 长整形参数解析结果, 以基本类型存储解析值, 仅在调用 {@link LongParseResult#getResult()} 时装箱
+ */
+@SuppressWarnings("unused")
+public class LongParseResult extends ParseResult<Long> {
+    /**
+     * 无法识别时的解析结果, 解析值为 null
+     */
+    public static final LongParseResult FAILURE = new LongParseResult();
+
+    /**
+     * 解析值
+     */
+    private final long value;
+    /**
+     * 是否存在解析值
+     */
+    private final boolean present;
+
+    /**
+     * @param value   解析值
+     * @param success 是否解析成功
+     */
+    public LongParseResult(long value, boolean success) {
+        super(null, success);
+        this.value = value;
+        this.present = true;
+    }
+
+    private LongParseResult() {
+        super(null, false);
+        this.value = 0;
+        this.present = false;
+    }
+
+    /**
+     * @return 解析值, 无法识别时为 0
+     */
+    public long getLong() {
+        return value;
+    }
+
+    @Override
+    public @Nullable Long getResult() {
+        return present ? value : null;
+    }
+}
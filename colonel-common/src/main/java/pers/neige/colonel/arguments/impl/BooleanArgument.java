@@ -6,6 +6,7 @@ import lombok.NonNull;
 import lombok.val;
 import org.jetbrains.annotations.Nullable;
 import pers.neige.colonel.arguments.Argument;
+import pers.neige.colonel.arguments.BooleanParseResult;
 import pers.neige.colonel.arguments.ParseResult;
 import pers.neige.colonel.context.Context;
 import pers.neige.colonel.context.NodeChain;
@@ -24,14 +25,18 @@ import java.util.List;
 public class BooleanArgument<S, R> extends Argument<S, Boolean, R> {
     private final static List<String> SUGGESTIONS = Arrays.asList("true", "false");
 
+    @Override
+    public boolean isSourceIndependent() {
+        return defaultValueGetter == null;
+    }
+
     @Override
     public @NonNull ParseResult<Boolean> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
         val result = input.readBoolean();
         if (result == null) {
-            return new ParseResult<>(null, false);
-        } else {
-            return new ParseResult<>(result, true);
+            return BooleanParseResult.FAILURE;
         }
+        return BooleanParseResult.of(result);
     }
 
     @Override
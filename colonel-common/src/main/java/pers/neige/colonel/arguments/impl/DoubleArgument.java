@@ -3,6 +3,7 @@ package pers.neige.colonel.arguments.impl;
 import lombok.*;
 import org.jetbrains.annotations.Nullable;
 import pers.neige.colonel.arguments.Argument;
+import pers.neige.colonel.arguments.DoubleParseResult;
 import pers.neige.colonel.arguments.ParseResult;
 import pers.neige.colonel.context.NodeChain;
 import pers.neige.colonel.reader.StringReader;
@@ -29,16 +30,18 @@ public class DoubleArgument<S, R> extends Argument<S, Double, R> {
     @Builder.Default
     private final double maximum = Double.MAX_VALUE;
 
+    @Override
+    public boolean isSourceIndependent() {
+        return defaultValueGetter == null;
+    }
+
     @Override
     public @NonNull ParseResult<Double> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
-        val result = input.readDouble();
-        if (result == null) {
-            return new ParseResult<>(null, false);
-        } else {
-            if (result < minimum || result > maximum) {
-                return new ParseResult<>(result, false);
-            }
-            return new ParseResult<>(result, true);
+        val start = input.getOffset();
+        val result = input.readDouble(0D);
+        if (input.getOffset() == start) {
+            return DoubleParseResult.FAILURE;
         }
+        return new DoubleParseResult(result, !(result < minimum || result > maximum));
     }
 }
@@ -1,5 +1,6 @@
 package pers.neige.colonel.arguments.impl;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
@@ -9,6 +10,7 @@ import pers.neige.colonel.arguments.ParseResult;
 import pers.neige.colonel.context.Context;
 import pers.neige.colonel.context.NodeChain;
 import pers.neige.colonel.reader.StringReader;
+import pers.neige.colonel.trie.LiteralTrie;
 
 import java.util.*;
 
@@ -30,6 +32,11 @@ public class EnumArgument<S, A extends Enum<A>, R> extends Argument<S, A, R> {
      * 从枚举名称到枚举常量的映射
      */
     private final @NonNull Map<String, A> enumMap;
+    /**
+     * 忽略大小写的枚举名前缀树, 用于直接以 {@link pers.neige.colonel.reader.Token} 查找枚举常量
+     */
+    @Getter(AccessLevel.NONE)
+    private final @NonNull LiteralTrie<A> enumTrie;
     /**
      * 忽略枚举名大小写<br>
      * 默认值 {@code true}
@@ -46,10 +53,14 @@ public class EnumArgument<S, A extends Enum<A>, R> extends Argument<S, A, R> {
         this.enumClass = enumClass;
         this.originNames = new LinkedHashSet<>();
         this.enumMap = new LinkedHashMap<>();
+        this.enumTrie = new LiteralTrie<>();
         for (A enumConstant : enumClass.getEnumConstants()) {
             this.originNames.add(enumConstant.name());
             val name = ignoreCase ? enumConstant.name().toUpperCase(Locale.ROOT) : enumConstant.name();
             this.enumMap.put(name, enumConstant);
+            if (enumTrie.get(enumConstant.name()) == null) {
+                enumTrie.put(enumConstant.name(), enumConstant);
+            }
         }
         this.ignoreCase = ignoreCase;
     }
@@ -63,12 +74,21 @@ public class EnumArgument<S, A extends Enum<A>, R> extends Argument<S, A, R> {
         this(enumClass, true);
     }
 
+    @Override
+    public boolean isSourceIndependent() {
+        return defaultValueGetter == null;
+    }
+
     @Override
     public @NonNull ParseResult<A> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
         val start = input.getOffset();
-        val key = this.ignoreCase ? input.readString().toUpperCase(Locale.ROOT) : input.readString();
+        val key = input.readToken();
         if (key.isEmpty()) return new ParseResult<>(null, false);
-        A value = enumMap.get(key);
+        A value = enumTrie.get(key);
+        if (!ignoreCase && value != null && !key.contentEquals(value.name())) {
+            // 仅大小写不同的枚举名共用一个前缀树条目, 回退到精确查找
+            value = enumMap.get(key.toString());
+        }
         if (value == null) {
             input.setOffset(start);
             return new ParseResult<>(null, false);
@@ -3,6 +3,7 @@ package pers.neige.colonel.arguments.impl;
 import lombok.*;
 import org.jetbrains.annotations.Nullable;
 import pers.neige.colonel.arguments.Argument;
+import pers.neige.colonel.arguments.FloatParseResult;
 import pers.neige.colonel.arguments.ParseResult;
 import pers.neige.colonel.context.NodeChain;
 import pers.neige.colonel.reader.StringReader;
@@ -29,16 +30,18 @@ public class FloatArgument<S, R> extends Argument<S, Float, R> {
     @Builder.Default
     private final float maximum = Float.MAX_VALUE;
 
+    @Override
+    public boolean isSourceIndependent() {
+        return defaultValueGetter == null;
+    }
+
     @Override
     public @NonNull ParseResult<Float> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
-        val result = input.readFloat();
-        if (result == null) {
-            return new ParseResult<>(null, false);
-        } else {
-            if (result < minimum || result > maximum) {
-                return new ParseResult<>(result, false);
-            }
-            return new ParseResult<>(result, true);
+        val start = input.getOffset();
+        val result = input.readFloat(0F);
+        if (input.getOffset() == start) {
+            return FloatParseResult.FAILURE;
         }
+        return new FloatParseResult(result, !(result < minimum || result > maximum));
     }
 }
@@ -45,9 +45,9 @@ public class MapArgument<S, A, R> extends Argument<S, A, R> {
     @Override
     public @NonNull ParseResult<A> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
         val start = input.getOffset();
-        val key = input.readString();
+        val key = input.readToken();
         if (key.isEmpty()) return new ParseResult<>(null, false);
-        val value = mapGetter.apply(nodeChain, source).get(key);
+        val value = mapGetter.apply(nodeChain, source).get(key.toString());
         if (value == null && nonnull) {
             input.setOffset(start);
             return new ParseResult<>(null, false);
@@ -48,10 +48,15 @@ public class StringArgument<S, R> extends Argument<S, String, R> {
         this.readAll = readAll;
     }
 
+    @Override
+    public boolean isSourceIndependent() {
+        return defaultValueGetter == null;
+    }
+
     @Override
     public @NonNull ParseResult<String> parse(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
         val start = input.getOffset();
-        val result = this.readAll ? input.readRemaining() : input.readString();
+        val result = this.readAll ? input.readRemaining() : input.readToken().toString();
         if (result.length() < minLength || result.length() > maxLength) {
             input.setOffset(start);
             return new ParseResult<>(result, false);
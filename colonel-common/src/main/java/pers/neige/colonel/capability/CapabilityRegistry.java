@@ -0,0 +1,138 @@
+package pers.neige.colonel.capability;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 能力注册表
+ * <p>
+ * 为每个能力名分配一个固定的位序号（0 至 63）, 构建节点树时将能力名编译为位掩码,
+ * 运行时的访问检查只比较 {@code long} 位集, 不再涉及字符串。<br>
+ * 同一注册表内的能力名区分大小写, 序号按首次注册的顺序分配, 分配后不再改变。
+ */
+@SuppressWarnings("unused")
+public final class CapabilityRegistry {
+    /**
+     * 单个注册表最多容纳的能力数量
+     */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    private final @NonNull Map<String, Integer> indexes = new ConcurrentHashMap<>();
+    /**
+     * 按序号排列的能力名
+     */
+    private final @NonNull String[] names = new String[MAX_SIZE];
+    private volatile int size;
+
+    /**
+     * 获取能力的位序号, 未注册时分配新的序号
+     *
+     * @param name 能力名
+     * @return 位序号
+     * @throws IllegalArgumentException 注册的能力数量超过 {@link CapabilityRegistry#MAX_SIZE}
+     */
+    public int index(@NonNull String name) {
+        val index = indexes.get(name);
+        if (index != null) return index;
+        synchronized (this) {
+            var current = indexes.get(name);
+            if (current == null) {
+                if (size >= MAX_SIZE) {
+                    throw new IllegalArgumentException("too many capabilities, max size is " + MAX_SIZE + ": " + name);
+                }
+                current = size;
+                names[current] = name;
+                indexes.put(name, current);
+                size = current + 1;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 将能力名编译为位掩码, 未注册的能力名会被自动注册
+     *
+     * @param names 能力名
+     * @return 位掩码
+     */
+    public long mask(@NonNull String... names) {
+        var mask = 0L;
+        for (val name : names) {
+            mask |= 1L << index(name);
+        }
+        return mask;
+    }
+
+    /**
+     * 将能力名编译为位掩码, 未注册的能力名会被自动注册
+     *
+     * @param names 能力名
+     * @return 位掩码
+     */
+    public long mask(@NonNull Collection<String> names) {
+        var mask = 0L;
+        for (val name : names) {
+            mask |= 1L << index(name);
+        }
+        return mask;
+    }
+
+    /**
+     * 将能力名编译为位掩码, 忽略未注册的能力名, 适用于根据外部数据构建执行源的位集
+     *
+     * @param names 能力名
+     * @return 位掩码
+     */
+    public long maskOfRegistered(@NonNull Collection<String> names) {
+        var mask = 0L;
+        for (val name : names) {
+            val index = indexes.get(name);
+            if (index != null) {
+                mask |= 1L << index;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 将位掩码还原为能力名
+     *
+     * @param mask 位掩码
+     * @return 按序号排列的能力名
+     */
+    public @NonNull List<String> names(long mask) {
+        val result = new ArrayList<String>(Long.bitCount(mask));
+        var remaining = mask;
+        while (remaining != 0) {
+            val index = Long.numberOfTrailingZeros(remaining);
+            val name = index < size ? names[index] : null;
+            if (name != null) {
+                result.add(name);
+            }
+            remaining &= remaining - 1;
+        }
+        return result;
+    }
+
+    /**
+     * @param name 能力名
+     * @return 能力是否已注册
+     */
+    public boolean contains(@NonNull String name) {
+        return indexes.containsKey(name);
+    }
+
+    /**
+     * @return 已注册的能力数量
+     */
+    public int size() {
+        return size;
+    }
+}
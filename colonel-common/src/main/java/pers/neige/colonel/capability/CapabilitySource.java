@@ -0,0 +1,27 @@
+package pers.neige.colonel.capability;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 持有能力位集的执行源
+ * <p>
+ * 位集中的每一位对应 {@link CapabilityRegistry} 中的一项能力, 节点通过 {@link pers.neige.colonel.node.Node#setRequiredCapabilities(long)} 声明所需能力,
+ * 检查访问时只需一次按位与。
+ */
+@FunctionalInterface
+public interface CapabilitySource {
+    /**
+     * 读取任意执行源的能力位集
+     *
+     * @param source 执行源
+     * @return 执行源实现了 {@link CapabilitySource} 时返回其能力位集, 否则返回 0
+     */
+    static long capabilitiesOf(@Nullable Object source) {
+        return source instanceof CapabilitySource ? ((CapabilitySource) source).getCapabilities() : 0L;
+    }
+
+    /**
+     * @return 当前拥有的能力位集
+     */
+    long getCapabilities();
+}
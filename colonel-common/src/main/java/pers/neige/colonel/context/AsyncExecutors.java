@@ -0,0 +1,116 @@
+package pers.neige.colonel.context;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步执行使用的默认线程池
+ * <p>
+ * 运行于 Java 21 及以上版本时, 通过反射调用 {@code Executors.newVirtualThreadPerTaskExecutor()} 为每个任务创建虚拟线程;<br>
+ * 否则回退到按需创建守护线程的缓存线程池, 执行器中的阻塞 I/O 不会占用 {@link java.util.concurrent.ForkJoinPool#commonPool()}。
+ * <p>
+ * 异步补全的超时由单个守护线程的 {@link AsyncExecutors#scheduler()} 计时。
+ */
+@SuppressWarnings("unused")
+public final class AsyncExecutors {
+    /**
+     * 默认线程池, 为 null 时表示尚未创建
+     */
+    private static volatile @Nullable Executor defaultExecutor;
+    /**
+     * 默认线程池是否使用虚拟线程
+     */
+    private static volatile boolean virtual;
+    /**
+     * 超时计时器, 为 null 时表示尚未创建
+     */
+    private static volatile @Nullable ScheduledExecutorService scheduler;
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * @return 默认线程池, 首次调用时创建
+     */
+    public static @NonNull Executor defaultExecutor() {
+        var executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (AsyncExecutors.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    executor = createDefaultExecutor();
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 替换默认线程池, 例如交由服务端的调度器执行
+     *
+     * @param executor 新的默认线程池, 为 null 时恢复为自动创建
+     */
+    public static synchronized void setDefaultExecutor(@Nullable Executor executor) {
+        defaultExecutor = executor;
+        virtual = false;
+    }
+
+    /**
+     * @return 默认线程池是否使用虚拟线程
+     */
+    public static boolean isVirtual() {
+        defaultExecutor();
+        return virtual;
+    }
+
+    /**
+     * 超时计时器, 只用于完成超时的请求, 不应提交耗时任务
+     *
+     * @return 超时计时器, 首次调用时创建
+     */
+    public static @NonNull ScheduledExecutorService scheduler() {
+        var timer = scheduler;
+        if (timer == null) {
+            synchronized (AsyncExecutors.class) {
+                timer = scheduler;
+                if (timer == null) {
+                    val executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        val thread = new Thread(runnable, "colonel-timer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.setRemoveOnCancelPolicy(true);
+                    timer = executor;
+                    scheduler = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    private static @NonNull Executor createDefaultExecutor() {
+        try {
+            val method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            val executor = (ExecutorService) method.invoke(null);
+            virtual = true;
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+        val counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            val thread = new Thread(runnable, "colonel-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
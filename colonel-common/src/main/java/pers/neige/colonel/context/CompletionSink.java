@@ -0,0 +1,92 @@
+package pers.neige.colonel.context;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 补全结果收集器
+ * <p>
+ * 收集到 {@link CompletionSink#getLimit()} 条补全文本后即视为已满, 补全的生产方应在 {@link CompletionSink#add(String)} 返回 {@code false} 时立即停止生产。
+ */
+@SuppressWarnings("unused")
+public class CompletionSink {
+    /**
+     * 最大补全数量
+     */
+    @Getter
+    private final int limit;
+    /**
+     * 已收集的补全文本
+     */
+    private final @NonNull List<String> suggestions;
+
+    /**
+     * @param limit 最大补全数量
+     */
+    public CompletionSink(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        this.limit = limit;
+        this.suggestions = new ArrayList<>(Math.min(limit, 16));
+    }
+
+    /**
+     * 添加补全文本
+     *
+     * @param suggestion 补全文本
+     * @return 是否还能继续添加
+     */
+    public boolean add(@NonNull String suggestion) {
+        if (suggestions.size() >= limit) return false;
+        suggestions.add(suggestion);
+        return suggestions.size() < limit;
+    }
+
+    /**
+     * 添加以指定前缀开头的补全文本（忽略大小写）
+     *
+     * @param suggestion      补全文本
+     * @param lowerCasePrefix 小写前缀
+     * @return 是否还能继续添加
+     */
+    public boolean addIfMatches(@NonNull String suggestion, @NonNull String lowerCasePrefix) {
+        if (suggestions.size() >= limit) return false;
+        if (suggestion.toLowerCase().startsWith(lowerCasePrefix)) {
+            suggestions.add(suggestion);
+        }
+        return suggestions.size() < limit;
+    }
+
+    /**
+     * 批量添加补全文本, 已满时忽略剩余文本
+     *
+     * @param suggestions 补全文本
+     * @return 是否还能继续添加
+     */
+    public boolean addAll(@NonNull Collection<String> suggestions) {
+        for (val suggestion : suggestions) {
+            if (!add(suggestion)) return false;
+        }
+        return !isFull();
+    }
+
+    /**
+     * @return 是否已收集到最大补全数量
+     */
+    public boolean isFull() {
+        return suggestions.size() >= limit;
+    }
+
+    /**
+     * @return 已收集的补全文本
+     */
+    public @NonNull List<String> getSuggestions() {
+        return suggestions;
+    }
+}
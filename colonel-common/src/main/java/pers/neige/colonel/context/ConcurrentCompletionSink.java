@@ -0,0 +1,93 @@
+package pers.neige.colonel.context;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 线程安全的补全结果收集器, 用于异步补全
+ * <p>
+ * 补全请求超时或被取消时收集器会被关闭, 关闭后 {@link ConcurrentCompletionSink#add(String)} 始终返回 {@code false}, 补全的生产方应立即停止生产。<br>
+ * {@link ConcurrentCompletionSink#getSuggestions()} 返回的是当前已收集文本的快照。
+ */
+@SuppressWarnings("unused")
+public class ConcurrentCompletionSink extends CompletionSink {
+    /**
+     * 是否已关闭
+     */
+    private volatile boolean closed = false;
+    /**
+     * 生产方是否已正常结束
+     */
+    private volatile boolean completed = false;
+
+    /**
+     * @param limit 最大补全数量
+     */
+    public ConcurrentCompletionSink(int limit) {
+        super(limit);
+    }
+
+    @Override
+    public synchronized boolean add(@NonNull String suggestion) {
+        return !closed && super.add(suggestion);
+    }
+
+    @Override
+    public synchronized boolean addIfMatches(@NonNull String suggestion, @NonNull String lowerCasePrefix) {
+        return !closed && super.addIfMatches(suggestion, lowerCasePrefix);
+    }
+
+    @Override
+    public synchronized boolean addAll(@NonNull Collection<String> suggestions) {
+        return !closed && super.addAll(suggestions);
+    }
+
+    @Override
+    public synchronized boolean isFull() {
+        return closed || super.isFull();
+    }
+
+    /**
+     * @return 已收集补全文本的快照
+     */
+    @Override
+    public synchronized @NonNull List<String> getSuggestions() {
+        return new ArrayList<>(super.getSuggestions());
+    }
+
+    /**
+     * 关闭收集器, 此后添加的补全文本均被忽略
+     */
+    public synchronized void close() {
+        closed = true;
+    }
+
+    /**
+     * @return 是否已关闭
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 标记生产方已正常结束并关闭收集器
+     *
+     * @return 是否标记成功, 收集器已被关闭时返回 false
+     */
+    public synchronized boolean complete() {
+        if (closed) return false;
+        completed = true;
+        closed = true;
+        return true;
+    }
+
+    /**
+     * @return 生产方是否已正常结束, 为 false 时已收集的文本只是部分结果
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+}
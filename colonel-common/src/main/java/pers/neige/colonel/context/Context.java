@@ -5,20 +5,25 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
 import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.arguments.*;
+import pers.neige.colonel.node.ArgumentKey;
 import pers.neige.colonel.node.Node;
 import pers.neige.colonel.node.ParsedNode;
 import pers.neige.colonel.node.impl.ArgumentNode;
-import pers.neige.colonel.node.impl.LiteralNode;
 import pers.neige.colonel.reader.StringReader;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * 执行上下文
+ * <p>
+ * 由 {@link ContextPool} 提供的上下文会在执行结束后被回收复用, 需要在执行结束后继续持有上下文时, 应持有 {@link Context#snapshot()} 的结果。
  */
 @AllArgsConstructor
 @Getter
@@ -27,23 +32,43 @@ public class Context<S, R> {
     /**
      * 源节点
      */
-    private final @NonNull Node<S, R> root;
+    private @NonNull Node<S, R> root;
     /**
      * 文本读取器
      */
-    private final @NonNull StringReader input;
+    private @NonNull StringReader input;
     /**
      * 执行源
      */
-    private final @Nullable S source;
+    private @Nullable S source;
     /**
      * 当前节点链
      */
-    private final @NonNull NodeChain<S, R> nodeChain;
+    private @NonNull NodeChain<S, R> nodeChain;
     /**
      * 是否可执行
      */
-    private final boolean executable;
+    private boolean executable;
+
+    /**
+     * 重新初始化上下文, 供 {@link ContextPool} 复用上下文时使用
+     */
+    void reset(@NonNull Node<S, R> root, @NonNull StringReader input, @Nullable S source, @NonNull NodeChain<S, R> nodeChain, boolean executable) {
+        this.root = root;
+        this.input = input;
+        this.source = source;
+        this.nodeChain = nodeChain;
+        this.executable = executable;
+    }
+
+    /**
+     * 生成当前上下文的独立副本, 副本不会被 {@link ContextPool} 回收
+     *
+     * @return 上下文副本
+     */
+    public @NonNull Context<S, R> snapshot() {
+        return new Context<>(root, input.copy(), source, nodeChain.copy(), executable);
+    }
 
     /**
      * @return 节点链长度
@@ -92,6 +117,116 @@ public class Context<S, R> {
         return nodeChain.getArgument(key);
     }
 
+    /**
+     * 参数键对应节点的解析后参数
+     *
+     * @param key 参数键
+     * @return 参数键对应节点的解析后参数, 节点不在节点链中时返回 null
+     */
+    public <A> @Nullable A getArgument(@NonNull ArgumentKey<A> key) {
+        return nodeChain.getArgument(key);
+    }
+
+    /**
+     * 参数键对应节点的Integer参数, 解析结果为 {@link IntParseResult} 时不进行装箱
+     *
+     * @param key 参数键
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public int getInt(@NonNull ArgumentKey<Integer> key) {
+        return intValue(nodeChain.get(key));
+    }
+
+    /**
+     * 对应ID的节点的Integer参数, 解析结果为 {@link IntParseResult} 时不进行装箱
+     *
+     * @param key 节点ID
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public int getInt(@NonNull String key) {
+        return intValue(nodeChain.get(key));
+    }
+
+    /**
+     * 参数键对应节点的Long参数, 解析结果为 {@link LongParseResult} 时不进行装箱
+     *
+     * @param key 参数键
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public long getLong(@NonNull ArgumentKey<Long> key) {
+        return longValue(nodeChain.get(key));
+    }
+
+    /**
+     * 对应ID的节点的Long参数, 解析结果为 {@link LongParseResult} 时不进行装箱
+     *
+     * @param key 节点ID
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public long getLong(@NonNull String key) {
+        return longValue(nodeChain.get(key));
+    }
+
+    /**
+     * 参数键对应节点的Float参数, 解析结果为 {@link FloatParseResult} 时不进行装箱
+     *
+     * @param key 参数键
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public float getFloat(@NonNull ArgumentKey<Float> key) {
+        return floatValue(nodeChain.get(key));
+    }
+
+    /**
+     * 对应ID的节点的Float参数, 解析结果为 {@link FloatParseResult} 时不进行装箱
+     *
+     * @param key 节点ID
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public float getFloat(@NonNull String key) {
+        return floatValue(nodeChain.get(key));
+    }
+
+    /**
+     * 参数键对应节点的Double参数, 解析结果为 {@link DoubleParseResult} 时不进行装箱
+     *
+     * @param key 参数键
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public double getDouble(@NonNull ArgumentKey<Double> key) {
+        return doubleValue(nodeChain.get(key));
+    }
+
+    /**
+     * 对应ID的节点的Double参数, 解析结果为 {@link DoubleParseResult} 时不进行装箱
+     *
+     * @param key 节点ID
+     * @return 解析后参数, 节点不在节点链中或参数不是数字时返回 0
+     */
+    public double getDouble(@NonNull String key) {
+        return doubleValue(nodeChain.get(key));
+    }
+
+    /**
+     * 参数键对应节点的布尔量参数
+     *
+     * @param key 参数键
+     * @return 解析后参数, 节点不在节点链中或参数不是布尔量时返回 false
+     */
+    public boolean getBoolean(@NonNull ArgumentKey<Boolean> key) {
+        return booleanValue(nodeChain.get(key));
+    }
+
+    /**
+     * 对应ID的节点的布尔量参数
+     *
+     * @param key 节点ID
+     * @return 解析后参数, 节点不在节点链中或参数不是布尔量时返回 false
+     */
+    public boolean getBoolean(@NonNull String key) {
+        return booleanValue(nodeChain.get(key));
+    }
+
     /**
      * 对应ID的节点解析后参数
      *
@@ -142,23 +277,22 @@ public class Context<S, R> {
     }
 
     /**
-     * 逻辑执行
+     * 逻辑执行<br>
+     * 节点只设置了异步执行器时, 将阻塞等待其执行完毕
      *
      * @param defExecutor 默认执行器
      * @return 执行结果
      */
     public @Nullable R execute(@Nullable Function<Context<S, R>, R> defExecutor) {
         if (executable) {
-            val lastNode = size() == 0 ? null : get(size() - 1);
-            if (lastNode == null) {
-                if (root.getExecutor() != null && input.getString().isEmpty()) {
-                    return root.getExecutor().apply(this);
-                } else {
-                    return defExecutor == null ? null : defExecutor.apply(this);
-                }
+            val target = executorNode();
+            if (target != null) {
+                val executor = target.getExecutor();
+                if (executor != null) return executor.apply(this);
+                val asyncExecutor = target.getAsyncExecutor();
+                if (asyncExecutor != null) return join(asyncExecutor.apply(this));
             }
-            val executor = lastNode.getNode().getExecutor();
-            return executor != null ? executor.apply(this) : defExecutor == null ? null : defExecutor.apply(this);
+            return defExecutor == null ? null : defExecutor.apply(this);
         } else {
             val last = nodeChain.last();
             if (last != null && last.getNode() instanceof ArgumentNode) {
@@ -173,6 +307,67 @@ public class Context<S, R> {
         return null;
     }
 
+    /**
+     * 在 {@link AsyncExecutors#defaultExecutor()} 中异步逻辑执行
+     *
+     * @param defExecutor 默认执行器
+     * @return 执行结果
+     * @see Context#executeAsync(Function, Executor)
+     */
+    public @NonNull CompletableFuture<R> executeAsync(@Nullable Function<Context<S, R>, R> defExecutor) {
+        return executeAsync(defExecutor, AsyncExecutors.defaultExecutor());
+    }
+
+    /**
+     * 异步逻辑执行
+     * <p>
+     * 执行器的选取规则与 {@link Context#execute(Function)} 一致, 但优先使用节点的异步执行器。<br>
+     * 同步执行器、默认执行器与参数解析失败时的执行回调均在 {@code executor} 中调用, 调用线程不会被阻塞。<br>
+     * 由 {@link ContextPool} 提供的上下文会在同步执行结束后被回收, 异步执行前需先调用 {@link Context#snapshot()}。
+     *
+     * @param defExecutor 默认执行器
+     * @param executor    执行任务的线程池
+     * @return 执行结果
+     */
+    public @NonNull CompletableFuture<R> executeAsync(@Nullable Function<Context<S, R>, R> defExecutor, @NonNull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> executeStage(defExecutor), executor).thenCompose(Function.identity());
+    }
+
+    /**
+     * 选取并调用执行器, 优先使用异步执行器
+     */
+    private @NonNull CompletionStage<R> executeStage(@Nullable Function<Context<S, R>, R> defExecutor) {
+        if (executable) {
+            val target = executorNode();
+            if (target != null) {
+                val asyncExecutor = target.getAsyncExecutor();
+                if (asyncExecutor != null) {
+                    val stage = asyncExecutor.apply(this);
+                    return stage == null ? CompletableFuture.completedFuture(null) : stage;
+                }
+            }
+        }
+        return CompletableFuture.completedFuture(execute(defExecutor));
+    }
+
+    /**
+     * 可执行时选取执行器所在的节点
+     *
+     * @return 执行器所在的节点, 应使用默认执行器时返回 null
+     */
+    private @Nullable Node<S, R> executorNode() {
+        val lastNode = size() == 0 ? null : get(size() - 1);
+        if (lastNode != null) return lastNode.getNode();
+        if ((root.getExecutor() != null || root.getAsyncExecutor() != null) && input.getString().isEmpty()) {
+            return root;
+        }
+        return null;
+    }
+
+    private static <R> @Nullable R join(@Nullable CompletionStage<R> stage) {
+        return stage == null ? null : stage.toCompletableFuture().join();
+    }
+
     /**
      * 文本补全
      *
@@ -181,18 +376,162 @@ public class Context<S, R> {
     public @NonNull List<String> tab() {
         val lastNode = lastNode();
         val remaining = input.peekRemaining();
-        if (lastNode.getArgumentNode() != null) {
-            val taber = lastNode.getArgumentNode().getTaber();
+        val argumentNode = lastNode.getArgumentNode();
+        if (argumentNode != null) {
+            if (!argumentNode.canUse(source)) {
+                return Collections.emptyList();
+            }
+            val taber = argumentNode.getTaber();
             if (taber != null) {
                 return taber.apply(this, remaining);
             }
-            return lastNode.getArgumentNode().getArgument().tab(this, remaining);
+            return argumentNode.getArgument().tab(this, remaining);
         }
-        Collection<String> rawSuggestions = new ArrayList<>();
-        for (LiteralNode<S, ?, R> node : lastNode.getLiteralNodesSet()) {
-            rawSuggestions.addAll(node.getTabNames());
+        if (lastNode.hasRestrictedChildren()) {
+            return lastNode.tabLiterals(remaining, source, Integer.MAX_VALUE);
         }
-        val lowerCaseRemaining = remaining.toLowerCase();
-        return rawSuggestions.stream().filter(text -> text.toLowerCase().startsWith(lowerCaseRemaining)).collect(Collectors.toList());
+        return lastNode.getTabIndex().match(remaining);
+    }
+
+    /**
+     * 文本补全, 收集器已满时立即停止
+     *
+     * @param sink 补全结果收集器
+     */
+    public void tab(@NonNull CompletionSink sink) {
+        val lastNode = lastNode();
+        val remaining = input.peekRemaining();
+        val argumentNode = lastNode.getArgumentNode();
+        if (argumentNode != null) {
+            if (!argumentNode.canUse(source)) {
+                return;
+            }
+            val sinkTaber = argumentNode.getSinkTaber();
+            if (sinkTaber != null) {
+                sinkTaber.tab(this, remaining, sink);
+                return;
+            }
+            val taber = argumentNode.getTaber();
+            if (taber != null) {
+                sink.addAll(taber.apply(this, remaining));
+                return;
+            }
+            argumentNode.getArgument().tab(this, remaining, sink);
+            return;
+        }
+        sink.addAll(lastNode.tabLiterals(remaining, source, sink.getLimit() - sink.getSuggestions().size()));
+    }
+
+    /**
+     * 在 {@link AsyncExecutors#defaultExecutor()} 中异步文本补全
+     *
+     * @param limit   最大补全数量
+     * @param timeout 超时时间, 小于等于 0 时不限制
+     * @param unit    超时时间单位
+     * @return 文本补全结果
+     * @see Context#tabAsync(ConcurrentCompletionSink, long, TimeUnit, Executor)
+     */
+    public @NonNull CompletableFuture<List<String>> tabAsync(int limit, long timeout, @NonNull TimeUnit unit) {
+        return tabAsync(new ConcurrentCompletionSink(limit), timeout, unit, AsyncExecutors.defaultExecutor());
+    }
+
+    /**
+     * 异步文本补全
+     * <p>
+     * 参数节点设置了 {@link ArgumentNode#getAsyncTaber()} 时直接调用异步补全器, 否则在 {@code executor} 中进行同步补全。<br>
+     * 超时后收集器被关闭, 结果以已收集的部分补全文本完成, 此时 {@link ConcurrentCompletionSink#isCompleted()} 为 false。<br>
+     * 返回的结果被取消时同样关闭收集器, 并尝试取消异步补全器返回的任务。<br>
+     * 超时的结果在计时线程中完成, 后续回调不应执行耗时操作。
+     *
+     * @param sink     补全结果收集器
+     * @param timeout  超时时间, 小于等于 0 时不限制
+     * @param unit     超时时间单位
+     * @param executor 同步补全使用的线程池
+     * @return 文本补全结果
+     */
+    public @NonNull CompletableFuture<List<String>> tabAsync(
+        @NonNull ConcurrentCompletionSink sink,
+        long timeout,
+        @NonNull TimeUnit unit,
+        @NonNull Executor executor
+    ) {
+        val result = new CompletableFuture<List<String>>();
+        val argumentNode = lastNode().getArgumentNode();
+        val asyncTaber = argumentNode == null || !argumentNode.canUse(source) ? null : argumentNode.getAsyncTaber();
+        CompletionStage<?> stage;
+        try {
+            if (asyncTaber != null) {
+                stage = asyncTaber.tab(this, input.peekRemaining(), sink);
+            } else {
+                stage = CompletableFuture.runAsync(() -> tab(sink), executor);
+            }
+        } catch (RuntimeException e) {
+            sink.close();
+            result.completeExceptionally(e);
+            return result;
+        }
+        stage.whenComplete((ignored, error) -> {
+            if (error != null) {
+                sink.close();
+                result.completeExceptionally(error);
+            } else if (sink.complete()) {
+                result.complete(sink.getSuggestions());
+            }
+        });
+        if (timeout > 0 && !result.isDone()) {
+            val timer = AsyncExecutors.scheduler().schedule(() -> {
+                sink.close();
+                result.complete(sink.getSuggestions());
+            }, timeout, unit);
+            result.whenComplete((suggestions, error) -> timer.cancel(false));
+        }
+        result.whenComplete((suggestions, error) -> {
+            if (sink.isCompleted()) return;
+            sink.close();
+            try {
+                stage.toCompletableFuture().cancel(true);
+            } catch (UnsupportedOperationException ignored) {
+            }
+        });
+        return result;
+    }
+
+    private static int intValue(@Nullable ParsedNode<?, ?, ?> node) {
+        if (node == null) return 0;
+        val argument = node.getArgument();
+        if (argument instanceof IntParseResult) return ((IntParseResult) argument).getInt();
+        val result = argument.getResult();
+        return result instanceof Number ? ((Number) result).intValue() : 0;
+    }
+
+    private static long longValue(@Nullable ParsedNode<?, ?, ?> node) {
+        if (node == null) return 0;
+        val argument = node.getArgument();
+        if (argument instanceof LongParseResult) return ((LongParseResult) argument).getLong();
+        val result = argument.getResult();
+        return result instanceof Number ? ((Number) result).longValue() : 0;
+    }
+
+    private static float floatValue(@Nullable ParsedNode<?, ?, ?> node) {
+        if (node == null) return 0;
+        val argument = node.getArgument();
+        if (argument instanceof FloatParseResult) return ((FloatParseResult) argument).getFloat();
+        val result = argument.getResult();
+        return result instanceof Number ? ((Number) result).floatValue() : 0;
+    }
+
+    private static double doubleValue(@Nullable ParsedNode<?, ?, ?> node) {
+        if (node == null) return 0;
+        val argument = node.getArgument();
+        if (argument instanceof DoubleParseResult) return ((DoubleParseResult) argument).getDouble();
+        val result = argument.getResult();
+        return result instanceof Number ? ((Number) result).doubleValue() : 0;
+    }
+
+    private static boolean booleanValue(@Nullable ParsedNode<?, ?, ?> node) {
+        if (node == null) return false;
+        val argument = node.getArgument();
+        if (argument instanceof BooleanParseResult) return ((BooleanParseResult) argument).getBoolean();
+        return Boolean.TRUE.equals(argument.getResult());
     }
 }
@@ -0,0 +1,113 @@
+package pers.neige.colonel.context;
+
+import lombok.NonNull;
+import lombok.val;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.Arrays;
+
+/**
+ * 线程内的上下文对象池
+ * <p>
+ * 每个线程持有一个对象池, 用于复用 {@link NodeChain} 与 {@link Context}, 避免每次执行都分配新对象。<br>
+ * 对象池以栈的形式管理空闲对象, 支持在执行器中嵌套执行其他指令。
+ * <p>
+ * 生命周期约定: 通过对象池获取的上下文只在本次执行期间有效, 执行结束后会被清空并回收。<br>
+ * 执行器如需在执行结束后继续持有上下文（例如交给其他线程异步处理）, 必须持有 {@link Context#snapshot()} 的结果。
+ */
+@SuppressWarnings({"unused", "unchecked"})
+public final class ContextPool {
+    /**
+     * 每个线程的对象池
+     */
+    private static final ThreadLocal<ContextPool> POOLS = ThreadLocal.withInitial(ContextPool::new);
+    /**
+     * 每种对象最多保留的空闲数量
+     */
+    private static final int MAX_IDLE = 16;
+
+    private @NonNull NodeChain<?, ?>[] nodeChains = new NodeChain<?, ?>[4];
+    private int nodeChainCount = 0;
+    private @NonNull Context<?, ?>[] contexts = new Context<?, ?>[4];
+    private int contextCount = 0;
+
+    private ContextPool() {
+    }
+
+    /**
+     * @return 当前线程的对象池
+     */
+    public static @NonNull ContextPool current() {
+        return POOLS.get();
+    }
+
+    /**
+     * 获取一个空的节点链
+     *
+     * @return 空的节点链
+     */
+    public <S, R> @NonNull NodeChain<S, R> acquireNodeChain() {
+        if (nodeChainCount == 0) {
+            return new NodeChain<>();
+        }
+        val nodeChain = (NodeChain<S, R>) nodeChains[--nodeChainCount];
+        nodeChains[nodeChainCount] = null;
+        return nodeChain;
+    }
+
+    /**
+     * 获取一个上下文
+     *
+     * @param root       源节点
+     * @param input      文本读取器
+     * @param source     执行源
+     * @param nodeChain  通过 {@link ContextPool#acquireNodeChain()} 获取的节点链
+     * @param executable 是否可执行
+     * @return 上下文
+     */
+    public <S, R> @NonNull Context<S, R> acquire(
+        @NonNull Node<S, R> root,
+        @NonNull StringReader input,
+        @Nullable S source,
+        @NonNull NodeChain<S, R> nodeChain,
+        boolean executable
+    ) {
+        if (contextCount == 0) {
+            return new Context<>(root, input, source, nodeChain, executable);
+        }
+        val context = (Context<S, R>) contexts[--contextCount];
+        contexts[contextCount] = null;
+        context.reset(root, input, source, nodeChain, executable);
+        return context;
+    }
+
+    /**
+     * 回收上下文及其节点链, 回收后不应再使用该上下文
+     *
+     * @param context 上下文
+     */
+    public void release(@NonNull Context<?, ?> context) {
+        release(context.getNodeChain());
+        if (contextCount == contexts.length) {
+            if (contextCount >= MAX_IDLE) return;
+            contexts = Arrays.copyOf(contexts, contextCount * 2);
+        }
+        contexts[contextCount++] = context;
+    }
+
+    /**
+     * 回收节点链, 回收后不应再使用该节点链
+     *
+     * @param nodeChain 节点链
+     */
+    public void release(@NonNull NodeChain<?, ?> nodeChain) {
+        nodeChain.clear();
+        if (nodeChainCount == nodeChains.length) {
+            if (nodeChainCount >= MAX_IDLE) return;
+            nodeChains = Arrays.copyOf(nodeChains, nodeChainCount * 2);
+        }
+        nodeChains[nodeChainCount++] = nodeChain;
+    }
+}
@@ -1,29 +1,35 @@
 package pers.neige.colonel.context;
 
-import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
 import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.node.ArgumentKey;
 import pers.neige.colonel.node.ParsedNode;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 
 /**
  * 节点链
+ * <p>
+ * 解析后节点对象以数组存储, 第 n 个解析后节点对象对应节点树中深度为 n + 1 的节点（{@link pers.neige.colonel.node.Node#getDepth()}）,
+ * 因此可以通过 {@link ArgumentKey} 以数组下标直接获取参数。
  */
-@Getter
 @SuppressWarnings("unused")
 public class NodeChain<S, R> {
+    private static final ParsedNode<?, ?, ?>[] EMPTY_NODES = new ParsedNode<?, ?, ?>[0];
+
     /**
      * 依据顺序存储的解析后节点对象
      */
-    private final @NonNull List<ParsedNode<S, ?, R>> nodes = new ArrayList<>();
+    @SuppressWarnings("unchecked")
+    private @NonNull ParsedNode<S, ?, R>[] nodes = (ParsedNode<S, ?, R>[]) EMPTY_NODES;
     /**
-     * 依据ID存储的解析后节点对象
+     * 节点链长度
      */
-    private final @NonNull LinkedHashMap<String, ParsedNode<S, ?, R>> nodeMap = new LinkedHashMap<>();
+    private int size = 0;
 
     /**
      * 添加解析后节点对象
@@ -31,8 +37,64 @@ public class NodeChain<S, R> {
      * @param node 解析后节点对象
      */
     public void add(@NonNull ParsedNode<S, ?, R> node) {
-        nodes.add(node);
-        nodeMap.put(node.getNode().getId(), node);
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(8, size * 2));
+        }
+        nodes[size++] = node;
+    }
+
+    /**
+     * 清空节点链, 保留已分配的容量以便复用
+     */
+    public void clear() {
+        Arrays.fill(nodes, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * 复制节点链
+     *
+     * @return 包含相同解析后节点对象的新节点链
+     */
+    public @NonNull NodeChain<S, R> copy() {
+        val copy = new NodeChain<S, R>();
+        copy.nodes = Arrays.copyOf(nodes, size);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 依据顺序存储的解析后节点对象
+     *
+     * @return 只读的解析后节点对象列表
+     */
+    public @NonNull List<ParsedNode<S, ?, R>> getNodes() {
+        return Collections.unmodifiableList(Arrays.asList(nodes).subList(0, size));
+    }
+
+    /**
+     * 依据顺序复制解析后节点对象
+     *
+     * @return 长度与节点链相同的新数组
+     */
+    public @NonNull ParsedNode<S, ?, R>[] toArray() {
+        return Arrays.copyOf(nodes, size);
+    }
+
+    /**
+     * 依据ID存储的解析后节点对象, ID 重复时保留最后一个<br>
+     * 节点链改为数组存储后, 返回值是每次调用时重新生成的副本, 对其修改不会影响节点链
+     *
+     * @return 依据ID存储的解析后节点对象
+     * @deprecated 按ID查找请使用 {@link NodeChain#get(String)}, 遍历请使用 {@link NodeChain#getNodes()}
+     */
+    @Deprecated
+    public @NonNull LinkedHashMap<String, ParsedNode<S, ?, R>> getNodeMap() {
+        val nodeMap = new LinkedHashMap<String, ParsedNode<S, ?, R>>();
+        for (int index = 0; index < size; index++) {
+            nodeMap.put(nodes[index].getNode().getId(), nodes[index]);
+        }
+        return nodeMap;
     }
 
     /**
@@ -41,7 +103,7 @@ public class NodeChain<S, R> {
      * @return 节点链长度
      */
     public int size() {
-        return nodes.size();
+        return size;
     }
 
     /**
@@ -51,7 +113,7 @@ public class NodeChain<S, R> {
      * @return 解析后节点对象
      */
     public @Nullable ParsedNode<S, ?, R> get(int index) {
-        return index >= 0 && index <= (nodes.size() - 1) ? nodes.get(index) : null;
+        return index >= 0 && index < size ? nodes[index] : null;
     }
 
     /**
@@ -61,7 +123,30 @@ public class NodeChain<S, R> {
      * @return 解析后节点对象
      */
     public @Nullable ParsedNode<S, ?, R> get(@NonNull String key) {
-        return nodeMap.get(key);
+        for (int index = size - 1; index >= 0; index--) {
+            val node = nodes[index];
+            if (node.getNode().getId().equals(key)) return node;
+        }
+        return null;
+    }
+
+    /**
+     * 根据参数键获取解析后节点对象<br>
+     * 从节点树的根节点开始解析时直接以节点深度作为下标读取, 否则退回按节点查找
+     *
+     * @param key 参数键
+     * @return 解析后节点对象
+     */
+    public @Nullable ParsedNode<S, ?, R> get(@NonNull ArgumentKey<?> key) {
+        val node = key.getNode();
+        val slot = node.getDepth() - 1;
+        if (slot >= 0 && slot < size && nodes[slot].getNode() == node) {
+            return nodes[slot];
+        }
+        for (int index = size - 1; index >= 0; index--) {
+            if (nodes[index].getNode() == node) return nodes[index];
+        }
+        return null;
     }
 
     /**
@@ -70,7 +155,7 @@ public class NodeChain<S, R> {
      * @return 最后一个解析后节点对象
      */
     public @Nullable ParsedNode<S, ?, R> last() {
-        return nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+        return size == 0 ? null : nodes[size - 1];
     }
 
     /**
@@ -79,7 +164,7 @@ public class NodeChain<S, R> {
      * @return 节点链是否为空
      */
     public boolean isEmpty() {
-        return nodes.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -106,6 +191,19 @@ public class NodeChain<S, R> {
         return (A) value;
     }
 
+    /**
+     * 参数键对应节点的解析后参数
+     *
+     * @param key 参数键
+     * @return 参数键对应节点的解析后参数, 节点不在节点链中时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public <A> @Nullable A getArgument(@NonNull ArgumentKey<A> key) {
+        val node = get(key);
+        if (node == null) return null;
+        return (A) node.getArgument().getResult();
+    }
+
     /**
      * 对应ID的节点解析后参数
      *
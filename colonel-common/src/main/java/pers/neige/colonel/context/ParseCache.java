@@ -0,0 +1,198 @@
+package pers.neige.colonel.context;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.node.ParsedNode;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 解析结果缓存
+ * <p>
+ * 以输入文本为键, 缓存 {@link Node#parseExecuteContext(StringReader, Object)} 解析得到的节点链, 容量满时淘汰最久未使用的条目。<br>
+ * 只有路径上所有参数均与执行源无关（{@link pers.neige.colonel.arguments.Argument#isSourceIndependent()}）,
+ * 且路径上没有设置了访问条件（{@link Node#getRequirement()}）的子节点时, 解析结果才会被缓存。<br>
+ * 节点树通过 {@link Node#then(Node)} 等方法发生修改后, 缓存将在下一次访问时自动清空。
+ */
+@SuppressWarnings("unused")
+public class ParseCache<S, R> {
+    /**
+     * 最大缓存条目数
+     */
+    @Getter
+    private final int maxSize;
+    /**
+     * 以访问顺序排列的缓存条目
+     */
+    private final @NonNull LinkedHashMap<String, CacheEntry<S, R>> entries;
+    /**
+     * 缓存条目对应的节点树修改次数
+     */
+    private int modCount = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param maxSize 最大缓存条目数
+     */
+    public ParseCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<String, CacheEntry<S, R>>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<S, R>> eldest) {
+                if (size() <= ParseCache.this.maxSize) return false;
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * 根据缓存还原解析上下文, 命中时读取器偏移量将移动到缓存的解析结束位置
+     *
+     * @param root     源节点
+     * @param input    输入的文本读取器
+     * @param source   执行源
+     * @param modCount 源节点当前的修改次数
+     * @return 解析上下文, 未命中则返回 null
+     */
+    public synchronized @Nullable Context<S, R> get(@NonNull Node<S, R> root, @NonNull StringReader input, @Nullable S source, int modCount) {
+        checkModCount(modCount);
+        val entry = entries.get(input.getString());
+        if (entry == null || entry.escape != input.getEscape() || !entry.separators.equals(input.getSeparators())) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        val nodeChain = new NodeChain<S, R>();
+        for (val node : entry.nodes) {
+            nodeChain.add(node);
+        }
+        input.setOffset(entry.offset);
+        return new Context<>(root, input, source, nodeChain, entry.executable);
+    }
+
+    /**
+     * 缓存解析上下文, 存在与执行源相关的参数或访问条件时不进行缓存
+     *
+     * @param context  从偏移量 0 开始解析得到的解析上下文
+     * @param modCount 源节点当前的修改次数
+     * @return 是否成功缓存
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized boolean put(@NonNull Context<S, R> context, int modCount) {
+        val nodes = context.getNodeChain().getNodes();
+        if (context.getRoot().hasRestrictedChildren()) return false;
+        for (val node : nodes) {
+            if (node.getNode() instanceof ArgumentNode && !((ArgumentNode<S, ?, R>) node.getNode()).getArgument().isSourceIndependent()) {
+                return false;
+            }
+            if (node.getNode().hasRestrictedChildren()) return false;
+        }
+        checkModCount(modCount);
+        val input = context.getInput();
+        entries.put(input.getString(), new CacheEntry<>(
+            context.getNodeChain().toArray(),
+            input.getOffset(),
+            context.isExecutable(),
+            input.getEscape(),
+            input.getSeparators()
+        ));
+        return true;
+    }
+
+    /**
+     * 节点树发生修改时清空缓存
+     */
+    private void checkModCount(int modCount) {
+        if (this.modCount == modCount) return;
+        this.modCount = modCount;
+        entries.clear();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return 当前缓存条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return 缓存命中次数
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return 缓存未命中次数
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return 缓存淘汰次数
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class CacheEntry<S, R> {
+        /**
+         * 解析后节点
+         */
+        private final @NonNull ParsedNode<S, ?, R>[] nodes;
+        /**
+         * 解析结束时的偏移量
+         */
+        private final int offset;
+        /**
+         * 是否可执行
+         */
+        private final boolean executable;
+        /**
+         * 解析时读取器的转义符
+         */
+        private final char escape;
+        /**
+         * 解析时读取器的分隔符
+         */
+        private final @NonNull Set<Character> separators;
+
+        private CacheEntry(
+            @NonNull ParsedNode<S, ?, R>[] nodes,
+            int offset,
+            boolean executable,
+            char escape,
+            @NonNull Set<Character> separators
+        ) {
+            this.nodes = nodes;
+            this.offset = offset;
+            this.executable = executable;
+            this.escape = escape;
+            this.separators = separators;
+        }
+    }
+}
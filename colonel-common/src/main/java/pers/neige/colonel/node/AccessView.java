@@ -0,0 +1,313 @@
+package pers.neige.colonel.node;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.reader.StringReader;
+import pers.neige.colonel.trie.LiteralTrie;
+import pers.neige.colonel.trie.PrefixIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 按访问条件裁剪后的节点树视图
+ * <p>
+ * 适用于一组访问条件（{@link Node#getRequirement()}）结果完全相同的执行源（例如同一权限组的玩家）。<br>
+ * 每个节点的裁剪结果（只包含可访问字面量的前缀树与补全索引）在首次经过时, 以当次调用的执行源求值访问条件后构建并缓存,
+ * 此后解析与补全直接使用裁剪后的结构, 不再对每个候选项求值访问条件。没有受限子节点的节点直接复用原有结构。
+ * <p>
+ * 视图不持有任何执行源, 执行源（例如已退出的玩家）不会因视图而无法回收。<br>
+ * 每个裁剪结果记录构建时节点的子节点快照, 节点的子节点（包括其访问条件）发生变化后, 下一次经过该节点时重新构建;
+ * 访问条件的外部状态（例如权限组的权限）发生变化时, 应丢弃视图或调用 {@link AccessViews#invalidate(Object)}。视图可在多个线程间共享。
+ *
+ * @see AccessViews
+ */
+@SuppressWarnings("unused")
+public final class AccessView<S, R> {
+    /**
+     * 源节点
+     */
+    @Getter
+    private final @NonNull Node<S, R> root;
+    /**
+     * 每个节点的裁剪结果
+     */
+    private final @NonNull Map<Node<S, R>, Pruned<S, R>> pruned = new ConcurrentHashMap<>();
+    /**
+     * 裁剪结果对应的源节点修改次数
+     */
+    private volatile int modCount;
+
+    /**
+     * @param root 源节点
+     */
+    public AccessView(@NonNull Node<S, R> root) {
+        this.root = root;
+        this.modCount = root.getModCount();
+    }
+
+    /**
+     * 以逻辑执行为目的, 进行文本解析
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源, 参数以该执行源解析
+     * @return 解析上下文，可用于逻辑执行
+     */
+    public @NonNull Context<S, R> parseExecuteContext(@NonNull StringReader input, @Nullable S source) {
+        checkModCount();
+        val nodeChain = new NodeChain<S, R>();
+        Node<S, R> current = root;
+        input.skipSeparator();
+        while (true) {
+            val table = pruned(current, source);
+            val argumentNode = table.argumentNode;
+            ParsedNode<S, ?, R> next;
+            if (argumentNode != null) {
+                val argument = argumentNode.getArgument();
+                if (!input.canRead()) {
+                    if (!argument.hasDefaultValue()) break;
+                    next = new ParsedNode<>(argumentNode, argument.getDefaultValue(source));
+                } else {
+                    next = new ParsedNode<>(argumentNode, argument.parse(nodeChain, input, source));
+                }
+                nodeChain.add(next);
+                if (!next.isSuccess()) {
+                    return new Context<>(root, input, source, nodeChain, false);
+                }
+            } else {
+                next = table.match(input);
+                if (next == null) break;
+                nodeChain.add(next);
+            }
+            current = next.getNode();
+            input.skipSeparator();
+        }
+        return new Context<>(root, input, source, nodeChain, true);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 执行结果
+     */
+    public @Nullable R execute(@NonNull StringReader input, @Nullable S source) {
+        return execute(input, source, null);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param input       输入的文本读取器
+     * @param source      执行源
+     * @param defExecutor 默认执行器
+     * @return 执行结果
+     */
+    public @Nullable R execute(@NonNull StringReader input, @Nullable S source, @Nullable Function<Context<S, R>, R> defExecutor) {
+        return parseExecuteContext(input, source).execute(defExecutor);
+    }
+
+    /**
+     * 以文本补全为目的, 进行文本解析
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 解析上下文，可用于文本补全
+     */
+    public @Nullable Context<S, R> parseTabContext(@NonNull StringReader input, @Nullable S source) {
+        checkModCount();
+        val nodeChain = new NodeChain<S, R>();
+        if (parseTab(nodeChain, input, source) == null) return null;
+        return new Context<>(root, input, source, nodeChain, false);
+    }
+
+    /**
+     * 文本补全
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input, @Nullable S source) {
+        return tab(input, source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 文本补全, 收集到 {@code limit} 条结果后立即停止
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @param limit  最大补全数量
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input, @Nullable S source, int limit) {
+        checkModCount();
+        val nodeChain = new NodeChain<S, R>();
+        val current = parseTab(nodeChain, input, source);
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        val table = pruned(current, source);
+        if (table.argumentNode != null) {
+            val sink = new CompletionSink(limit);
+            new Context<>(root, input, source, nodeChain, false).tab(sink);
+            return sink.getSuggestions();
+        }
+        if (current.getArgumentNode() != null) {
+            return Collections.emptyList();
+        }
+        return table.tabIndex.match(input.peekRemaining(), limit);
+    }
+
+    /**
+     * 以文本补全为目的, 进行文本解析
+     *
+     * @return 最后一个节点, 无法补全则返回 null
+     */
+    private @Nullable Node<S, R> parseTab(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
+        Node<S, R> current = root;
+        if (!input.canRead()) return current;
+        boolean skipped;
+        while (true) {
+            skipped = input.skipSeparator();
+            if (!input.canRead()) {
+                return skipped ? current : null;
+            }
+            val start = input.getOffset();
+            val table = pruned(current, source);
+            val argumentNode = table.argumentNode;
+            if (argumentNode != null) {
+                val parseResult = argumentNode.getArgument().parse(nodeChain, input, source);
+                if (!parseResult.isSuccess()) {
+                    return current;
+                }
+                if (!input.canRead() || !input.isSeparator(input.current())) {
+                    input.setOffset(start);
+                    return current;
+                }
+                nodeChain.add(new ParsedNode<>(argumentNode, parseResult));
+                current = argumentNode;
+            } else {
+                val next = table.match(input);
+                if (next == null) {
+                    return current;
+                }
+                if (!input.canRead() || !input.isSeparator(input.current())) {
+                    input.setOffset(start);
+                    return current;
+                }
+                nodeChain.add(next);
+                current = next.getNode();
+            }
+        }
+    }
+
+    /**
+     * 源节点树发生修改时清空裁剪结果, 只用于释放已失效的条目<br>
+     * 裁剪结果是否过期由 {@link Pruned#snapshot} 判断, 与清空的时机无关
+     */
+    private void checkModCount() {
+        val current = root.getModCount();
+        if (modCount == current) return;
+        pruned.clear();
+        modCount = current;
+    }
+
+    /**
+     * 获取节点的裁剪结果, 尚未构建或节点的子节点快照已发生变化时, 以当前执行源求值访问条件并重新构建
+     */
+    private @NonNull Pruned<S, R> pruned(@NonNull Node<S, R> node, @Nullable S source) {
+        var table = pruned.get(node);
+        if (table == null || table.snapshot != node.children) {
+            table = prune(node, source);
+            pruned.put(node, table);
+        }
+        return table;
+    }
+
+    /**
+     * 构建裁剪结果, 并记录构建前读取的子节点快照<br>
+     * 构建期间子节点发生变化时, 记录的快照已不是最新, 下一次读取会重新构建
+     */
+    @SuppressWarnings("unchecked")
+    private @NonNull Pruned<S, R> prune(@NonNull Node<S, R> node, @Nullable S source) {
+        val snapshot = node.children;
+        val argumentNode = (ArgumentNode<S, ?, R>) node.getArgumentNode();
+        if (!node.hasRestrictedChildren()) {
+            return new Pruned<>(node, snapshot, null, node.getTabIndex(), argumentNode);
+        }
+        if (argumentNode != null) {
+            return new Pruned<>(node, snapshot, null, PrefixIndex.EMPTY, argumentNode.canUse(source) ? argumentNode : null);
+        }
+        val trie = new LiteralTrie<ParsedNode<S, ?, R>>();
+        val names = new ArrayList<String>();
+        for (val literal : node.getLiteralNodesSet()) {
+            if (!literal.canUse(source)) continue;
+            names.addAll(literal.getTabNames());
+            for (val name : literal.getNames()) {
+                trie.put(name, Node.parsedLiteral(literal, name));
+            }
+        }
+        return new Pruned<>(node, snapshot, trie, new PrefixIndex(names), null);
+    }
+
+    /**
+     * 单个节点的裁剪结果
+     */
+    private static final class Pruned<S, R> {
+        /**
+         * 原节点
+         */
+        private final @NonNull Node<S, R> node;
+        /**
+         * 构建时原节点的子节点快照
+         */
+        private final @NonNull Node.Children<S, R> snapshot;
+        /**
+         * 可访问字面量的前缀树, 为 null 时直接使用原节点的匹配逻辑
+         */
+        private final @Nullable LiteralTrie<ParsedNode<S, ?, R>> trie;
+        /**
+         * 可访问字面量的补全显示名前缀索引
+         */
+        private final @NonNull PrefixIndex tabIndex;
+        /**
+         * 可访问的参数节点
+         */
+        private final @Nullable ArgumentNode<S, ?, R> argumentNode;
+
+        private Pruned(
+            @NonNull Node<S, R> node,
+            @NonNull Node.Children<S, R> snapshot,
+            @Nullable LiteralTrie<ParsedNode<S, ?, R>> trie,
+            @NonNull PrefixIndex tabIndex,
+            @Nullable ArgumentNode<S, ?, R> argumentNode
+        ) {
+            this.node = node;
+            this.snapshot = snapshot;
+            this.trie = trie;
+            this.tabIndex = tabIndex;
+            this.argumentNode = argumentNode;
+        }
+
+        private @Nullable ParsedNode<S, ?, R> match(@NonNull StringReader input) {
+            val trie = this.trie;
+            if (trie == null) return node.matchLiteralNode(input);
+            if (!input.canRead()) return null;
+            val entry = trie.match(input);
+            return entry == null ? null : entry.getValue();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package pers.neige.colonel.node;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 按分组缓存的节点树视图
+ * <p>
+ * 分组键相同的执行源必须满足完全相同的访问条件, 例如以权限组名作为分组键。<br>
+ * 只使用所需能力（{@link Node#setRequiredCapabilities(long)}）限制访问时, 可直接以 {@link pers.neige.colonel.capability.CapabilitySource#capabilitiesOf(Object)} 作为分组键。<br>
+ * 每个分组的 {@link AccessView} 以首次经过各节点的执行源对访问条件求值, 分组成员的访问条件发生变化时应调用 {@link AccessViews#invalidate(Object)}。<br>
+ * 视图只持有分组键而不持有执行源, 分组键会一直保留到被移除, 因此应使用权限组名等长期存在的轻量值, 不应直接以执行源作为分组键。
+ */
+@SuppressWarnings("unused")
+public final class AccessViews<S, R, K> {
+    /**
+     * 源节点
+     */
+    @Getter
+    private final @NonNull Node<S, R> root;
+    /**
+     * 根据执行源获取分组键, 分组键不能为 null
+     */
+    private final @NonNull Function<S, K> groupKey;
+    /**
+     * 每个分组的视图
+     */
+    private final @NonNull Map<K, AccessView<S, R>> views = new ConcurrentHashMap<>();
+
+    /**
+     * @param root     源节点
+     * @param groupKey 根据执行源获取分组键, 分组键不能为 null
+     */
+    public AccessViews(@NonNull Node<S, R> root, @NonNull Function<S, K> groupKey) {
+        this.root = root;
+        this.groupKey = groupKey;
+    }
+
+    /**
+     * 获取执行源所在分组的视图, 分组首次出现时创建
+     *
+     * @param source 执行源
+     * @return 节点树视图
+     */
+    public @NonNull AccessView<S, R> get(@Nullable S source) {
+        return views.computeIfAbsent(groupKey.apply(source), key -> new AccessView<>(root));
+    }
+
+    /**
+     * 移除分组的视图
+     *
+     * @param key 分组键
+     */
+    public void invalidate(@NonNull K key) {
+        views.remove(key);
+    }
+
+    /**
+     * 移除全部视图
+     */
+    public void invalidateAll() {
+        views.clear();
+    }
+
+    /**
+     * @return 当前的分组数量
+     */
+    public int size() {
+        return views.size();
+    }
+}
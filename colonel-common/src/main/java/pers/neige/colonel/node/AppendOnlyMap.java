@@ -0,0 +1,257 @@
+package pers.neige.colonel.node;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 追加式不可变映射
+ * <p>
+ * 按插入顺序迭代的只读映射快照。{@link AppendOnlyMap#with(Object, Object)} 返回包含新条目的新快照,
+ * 当前快照是共享数组上最新的快照时直接在数组末尾追加, 均摊开销为 O(1);<br>
+ * 旧快照只读取自身长度以内的条目, 不受后续追加影响。覆盖或移除已有条目时完整复制。
+ * <p>
+ * 派生新快照必须在持有 {@link Node} 修改锁时进行, 读取无需加锁。
+ */
+final class AppendOnlyMap<K, V> extends AbstractMap<K, V> {
+    private static final AppendOnlyMap<?, ?> EMPTY = new AppendOnlyMap<>(new Store(0), 0);
+
+    /**
+     * 共享的条目数组
+     */
+    private final @NonNull Store store;
+    /**
+     * 当前快照可见的条目数量
+     */
+    private final int size;
+
+    private AppendOnlyMap(@NonNull Store store, int size) {
+        this.store = store;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> @NonNull AppendOnlyMap<K, V> empty() {
+        return (AppendOnlyMap<K, V>) EMPTY;
+    }
+
+    /**
+     * 添加或覆盖条目
+     *
+     * @param key   键
+     * @param value 值
+     * @return 包含该条目的新快照, 条目已存在且值相同时返回当前快照
+     */
+    @NonNull AppendOnlyMap<K, V> with(@NonNull K key, @NonNull V value) {
+        val existing = indexOf(key);
+        if (existing >= 0) {
+            if (store.values[existing] == value) return this;
+            val copy = store.copy(size, store.keys.length);
+            copy.values[existing] = value;
+            return new AppendOnlyMap<>(copy, size);
+        }
+        var target = store;
+        if (target.used != size || size == target.keys.length) {
+            target = target.copy(size, Math.max(8, size * 2));
+        }
+        target.append(key, value);
+        return new AppendOnlyMap<>(target, size + 1);
+    }
+
+    /**
+     * 移除条目
+     *
+     * @param key 键
+     * @return 不包含该条目的新快照, 条目不存在时返回当前快照
+     */
+    @NonNull AppendOnlyMap<K, V> without(@NonNull Object key) {
+        val existing = indexOf(key);
+        if (existing < 0) return this;
+        val target = new Store(Math.max(8, size));
+        for (int index = 0; index < size; index++) {
+            if (index != existing) target.append(store.keys[index], store.values[index]);
+        }
+        return new AppendOnlyMap<>(target, size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return key != null && indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(@Nullable Object key) {
+        if (key == null) return null;
+        val index = indexOf(key);
+        return index < 0 ? null : (V) store.values[index];
+    }
+
+    @Override
+    public @NonNull Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public @NonNull Iterator<K> iterator() {
+                return new IndexIterator<K>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    K element(int index) {
+                        return (K) store.keys[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(@Nullable Object key) {
+                return containsKey(key);
+            }
+        };
+    }
+
+    @Override
+    public @NonNull Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public @NonNull Iterator<V> iterator() {
+                return new IndexIterator<V>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V element(int index) {
+                        return (V) store.values[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public @NonNull Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public @NonNull Iterator<Entry<K, V>> iterator() {
+                return new IndexIterator<Entry<K, V>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Entry<K, V> element(int index) {
+                        return new SimpleImmutableEntry<>((K) store.keys[index], (V) store.values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return 键在条目数组中的下标, 不存在或不在当前快照内时返回 -1
+     */
+    private int indexOf(@NonNull Object key) {
+        val table = store.table;
+        if (table.length == 0) return -1;
+        val mask = table.length - 1;
+        var slot = hash(key) & mask;
+        while (true) {
+            val stored = table[slot];
+            if (stored == 0) return -1;
+            val index = stored - 1;
+            // 下标不小于 size 的条目由更新的快照追加, 对当前快照不可见
+            if (index < size && store.keys[index].equals(key)) return index;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int hash(@NonNull Object key) {
+        val h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 按下标遍历当前快照的迭代器
+     */
+    private abstract class IndexIterator<E> implements Iterator<E> {
+        private int index = 0;
+
+        abstract E element(int index);
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) throw new NoSuchElementException();
+            return element(index++);
+        }
+    }
+
+    /**
+     * 条目数组与线性探测哈希表, 哈希表中存放条目下标加一, 0 表示空槽<br>
+     * 已写入的条目与槽位不会再被修改, 只有 {@link Store#used} 之后的位置可以追加
+     */
+    private static final class Store {
+        private final @NonNull Object[] keys;
+        private final @NonNull Object[] values;
+        private final int @NonNull [] table;
+        /**
+         * 已使用的条目数量, 只在持有修改锁时读写
+         */
+        private int used;
+
+        private Store(int capacity) {
+            this.keys = new Object[capacity];
+            this.values = new Object[capacity];
+            this.table = new int[capacity == 0 ? 0 : Integer.highestOneBit(capacity * 2 - 1) * 2];
+        }
+
+        /**
+         * 复制前 {@code size} 个条目到指定容量的新数组
+         */
+        private @NonNull Store copy(int size, int capacity) {
+            val copy = new Store(capacity);
+            for (int index = 0; index < size; index++) {
+                copy.append(keys[index], values[index]);
+            }
+            return copy;
+        }
+
+        private void append(@NonNull Object key, @NonNull Object value) {
+            val index = used;
+            keys[index] = key;
+            values[index] = value;
+            val mask = table.length - 1;
+            var slot = hash(key) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+            used = index + 1;
+        }
+    }
+}
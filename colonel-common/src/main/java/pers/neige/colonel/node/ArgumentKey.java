@@ -0,0 +1,29 @@
+package pers.neige.colonel.node;
+
+import lombok.Getter;
+import lombok.NonNull;
+import pers.neige.colonel.node.impl.ArgumentNode;
+
+/**
+ * 参数键
+ * <p>
+ * 由 {@link ArgumentNode#key()} 获取, 用于在执行器中通过 {@link pers.neige.colonel.context.Context#getArgument(ArgumentKey)} 读取参数。<br>
+ * 读取时以节点深度作为节点链下标, 不进行字符串查找, 且返回值已带有参数类型, 无需强制转换。
+ */
+@Getter
+@SuppressWarnings("unused")
+public final class ArgumentKey<A> {
+    /**
+     * 对应的参数节点
+     */
+    private final @NonNull ArgumentNode<?, A, ?> node;
+
+    public ArgumentKey(@NonNull ArgumentNode<?, A, ?> node) {
+        this.node = node;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgumentKey(" + node.getId() + ")";
+    }
+}
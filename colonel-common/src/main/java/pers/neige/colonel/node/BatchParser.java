@@ -0,0 +1,223 @@
+package pers.neige.colonel.node;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * 批量解析任务
+ * <p>
+ * 输入按首个文本片段分组, 每组再切分为固定大小的分片, 各分片通过 {@link ForkJoinPool} 并行解析。<br>
+ * 同一分片内首个字面量只匹配一次, 其余输入直接从该字面量之后继续解析。
+ * <p>
+ * 解析期间节点树必须保持只读。
+ */
+final class BatchParser<S, R> {
+    /**
+     * 每个分片包含的最大输入数量
+     */
+    private static final int CHUNK_SIZE = 64;
+
+    private final @NonNull Node<S, R> root;
+    private final @NonNull StringReader template;
+    private final @NonNull List<String> inputs;
+    private final @NonNull Function<String, S> sourceGetter;
+    /**
+     * 为 true 时在解析完成后立即于工作线程内执行
+     */
+    private final boolean executeInline;
+    private final @NonNull Context<S, R>[] contexts;
+    private final @NonNull Object[] results;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    BatchParser(
+        @NonNull Node<S, R> root,
+        @NonNull StringReader template,
+        @NonNull List<String> inputs,
+        @NonNull Function<String, S> sourceGetter,
+        boolean executeInline
+    ) {
+        this.root = root;
+        this.template = template;
+        this.inputs = inputs;
+        this.sourceGetter = sourceGetter;
+        this.executeInline = executeInline;
+        this.contexts = (Context<S, R>[]) new Context[inputs.size()];
+        this.results = new Object[inputs.size()];
+    }
+
+    /**
+     * 并行解析全部输入
+     *
+     * @param pool 执行解析任务的线程池
+     * @return 按输入顺序排列的解析上下文
+     */
+    @NonNull Context<S, R>[] parse(@NonNull ForkJoinPool pool) {
+        pool.invoke(new ChunkTask(chunks(), 0, -1));
+        return contexts;
+    }
+
+    /**
+     * 并行解析全部输入并执行
+     *
+     * @param pool 执行解析任务的线程池
+     * @return 按输入顺序排列的执行结果
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull List<R> execute(@NonNull ForkJoinPool pool) {
+        parse(pool);
+        if (!executeInline) {
+            for (int index = 0; index < contexts.length; index++) {
+                results[index] = contexts[index].execute();
+            }
+        }
+        val list = new ArrayList<R>(results.length);
+        for (val result : results) {
+            list.add((R) result);
+        }
+        return list;
+    }
+
+    /**
+     * 按首个文本片段分组并切分
+     */
+    private @NonNull List<Chunk> chunks() {
+        val groupable = isGroupable();
+        val groups = new LinkedHashMap<String, List<Integer>>();
+        val ungrouped = new ArrayList<Integer>();
+        for (int index = 0; index < inputs.size(); index++) {
+            val token = groupable ? leadingToken(inputs.get(index)) : null;
+            if (token == null) {
+                ungrouped.add(index);
+            } else {
+                groups.computeIfAbsent(token, k -> new ArrayList<>()).add(index);
+            }
+        }
+        val chunks = new ArrayList<Chunk>();
+        groups.forEach((token, indexes) -> split(chunks, token, indexes));
+        split(chunks, null, ungrouped);
+        return chunks;
+    }
+
+    private static void split(@NonNull List<Chunk> chunks, @Nullable String token, @NonNull List<Integer> indexes) {
+        for (int from = 0; from < indexes.size(); from += CHUNK_SIZE) {
+            val to = Math.min(indexes.size(), from + CHUNK_SIZE);
+            val slice = new int[to - from];
+            for (int i = from; i < to; i++) {
+                slice[i - from] = indexes.get(i);
+            }
+            chunks.add(new Chunk(token, slice));
+        }
+    }
+
+    /**
+     * 只有源节点的子节点均为字面量, 且识别名不含分隔符时, 首个文本片段才能唯一决定首个字面量
+     */
+    private boolean isGroupable() {
+        if (root.getArgumentNode() != null || root.getLiteralNodes().isEmpty()) return false;
+        for (val name : root.getLiteralNodes().keySet()) {
+            for (int index = 0; index < name.length(); index++) {
+                if (template.isSeparator(name.charAt(index))) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 跳过前导分隔符后的首个文本片段, 包含转义符或为空时返回 null
+     */
+    private @Nullable String leadingToken(@NonNull String input) {
+        var start = 0;
+        while (start < input.length() && template.isSeparator(input.charAt(start))) {
+            start++;
+        }
+        var end = start;
+        while (end < input.length()) {
+            val c = input.charAt(end);
+            if (c == template.getEscape()) return null;
+            if (template.isSeparator(c)) break;
+            end++;
+        }
+        return end == start ? null : input.substring(start, end);
+    }
+
+    private void parseChunk(@NonNull Chunk chunk) {
+        ParsedNode<S, ?, R> first = null;
+        if (chunk.token != null) {
+            first = root.matchLiteralNode(template.newReaderWithSameConfig(chunk.token));
+        }
+        // 首个字面量不经执行源匹配, 存在访问条件时需逐个检查
+        val restricted = root.hasRestrictedChildren();
+        for (val index : chunk.indexes) {
+            val text = inputs.get(index);
+            val source = sourceGetter.apply(text);
+            val input = template.newReaderWithSameConfig(text);
+            val nodeChain = new NodeChain<S, R>();
+            Context<S, R> context;
+            if (first == null || (restricted && !first.getNode().canUse(source))) {
+                context = root.parseExecuteContext(root, nodeChain, input, source);
+            } else {
+                input.skipSeparator();
+                input.skip(chunk.token.length());
+                nodeChain.add(first);
+                context = root.parseExecuteContext(first.getNode(), nodeChain, input, source);
+            }
+            if (executeInline) {
+                results[index] = context.execute();
+            } else {
+                contexts[index] = context;
+            }
+        }
+    }
+
+    /**
+     * 同一首个文本片段的一组输入
+     */
+    private static final class Chunk {
+        private final @Nullable String token;
+        private final int @NonNull [] indexes;
+
+        private Chunk(@Nullable String token, int @NonNull [] indexes) {
+            this.token = token;
+            this.indexes = indexes;
+        }
+    }
+
+    /**
+     * 分片解析任务, 分片数量大于 1 时二分
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final @NonNull List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(@NonNull List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to < 0 ? chunks.size() : to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) parseChunk(chunks.get(from));
+                return;
+            }
+            val middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(chunks, from, middle), new ChunkTask(chunks, middle, to));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package pers.neige.colonel.node;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.function.Function;
+
+/**
+ * 预编译指令
+ * <p>
+ * 由 {@link Node#compileCommand(StringReader)} 生成, 类似于预编译的 SQL 语句。<br>
+ * 编译时解析指令文本, 保存遇到第一个与执行源相关的参数（{@link pers.neige.colonel.arguments.Argument#isSourceIndependent()} 为 false）之前的全部解析结果。<br>
+ * 执行时直接复用这些结果, 仅从第一个与执行源相关的参数处开始, 以本次的执行源重新解析剩余文本。
+ * <p>
+ * 预先解析的节点设置了访问条件（{@link Node#getRequirement()}）时, 执行时会逐一检查, 任一节点不满足条件则完整地重新解析。<br>
+ * 源节点树发生修改后, 下一次执行时会自动重新编译。预编译指令可在多个线程间共享。
+ */
+@SuppressWarnings("unused")
+public final class CompiledCommand<S, R> {
+    /**
+     * 源节点
+     */
+    @Getter
+    private final @NonNull Node<S, R> root;
+    /**
+     * 读取器模板, 持有指令文本及分隔符与转义符设置
+     */
+    private final @NonNull StringReader template;
+    /**
+     * 当前的编译结果
+     */
+    private volatile @NonNull Plan<S, R> plan;
+
+    CompiledCommand(@NonNull Node<S, R> root, @NonNull StringReader input) {
+        this.root = root;
+        this.template = input.newReaderWithSameConfig(input.getString());
+        this.template.setOffset(input.getOffset());
+        this.plan = compile();
+    }
+
+    /**
+     * @return 指令文本
+     */
+    public @NonNull String getInput() {
+        return template.getString();
+    }
+
+    /**
+     * @return 全部节点均已在编译时解析完毕, 执行时无需任何解析
+     */
+    public boolean isBound() {
+        return currentPlan().resumeNode == null;
+    }
+
+    /**
+     * @return 编译时预先解析的节点数量
+     */
+    public int getBoundSize() {
+        return currentPlan().nodes.length;
+    }
+
+    /**
+     * 以逻辑执行为目的, 进行文本解析
+     *
+     * @param source 执行源
+     * @return 解析上下文，可用于逻辑执行
+     */
+    public @NonNull Context<S, R> parseExecuteContext(@Nullable S source) {
+        val plan = currentPlan();
+        val nodeChain = new NodeChain<S, R>();
+        for (val node : plan.nodes) {
+            if (!node.getNode().canUse(source)) {
+                return root.parseExecuteContext(template.copy(), source);
+            }
+            nodeChain.add(node);
+        }
+        val input = template.newReaderWithSameConfig(template.getString());
+        input.setOffset(plan.offset);
+        if (plan.resumeNode == null) {
+            return new Context<>(root, input, source, nodeChain, plan.executable);
+        }
+        return root.parseExecuteContext(plan.resumeNode, nodeChain, input, source);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param source 执行源
+     * @return 执行结果
+     */
+    public @Nullable R execute(@Nullable S source) {
+        return execute(source, null);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param source      执行源
+     * @param defExecutor 默认执行器
+     * @return 执行结果
+     */
+    public @Nullable R execute(@Nullable S source, @Nullable Function<Context<S, R>, R> defExecutor) {
+        return parseExecuteContext(source).execute(defExecutor);
+    }
+
+    /**
+     * 获取编译结果, 源节点树发生修改时重新编译
+     */
+    private @NonNull Plan<S, R> currentPlan() {
+        var plan = this.plan;
+        if (plan.modCount != root.getModCount()) {
+            plan = compile();
+            this.plan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * 解析指令文本, 直到文本结束、解析失败或遇到第一个与执行源相关的参数
+     */
+    @SuppressWarnings("unchecked")
+    private @NonNull Plan<S, R> compile() {
+        val modCount = root.getModCount();
+        val nodeChain = new NodeChain<S, R>();
+        val input = template.copy();
+        Node<S, R> current = root;
+        input.skipSeparator();
+        while (true) {
+            val argumentNode = (ArgumentNode<S, ?, R>) current.getArgumentNode();
+            ParsedNode<S, ?, R> next;
+            if (argumentNode != null) {
+                val argument = argumentNode.getArgument();
+                if (!input.canRead() && !argument.hasDefaultValue()) break;
+                if (!argument.isSourceIndependent()) {
+                    return new Plan<>(nodeChain.toArray(), input.getOffset(), current, true, modCount);
+                }
+                if (!input.canRead()) {
+                    next = new ParsedNode<>(argumentNode, argument.getDefaultValue(null));
+                } else {
+                    next = new ParsedNode<>(argumentNode, argument.parse(nodeChain, input, null));
+                }
+                nodeChain.add(next);
+                if (!next.isSuccess()) {
+                    return new Plan<>(nodeChain.toArray(), input.getOffset(), null, false, modCount);
+                }
+            } else {
+                next = current.matchLiteralNode(input);
+                if (next == null) break;
+                nodeChain.add(next);
+            }
+            current = next.getNode();
+            input.skipSeparator();
+        }
+        return new Plan<>(nodeChain.toArray(), input.getOffset(), null, true, modCount);
+    }
+
+    /**
+     * 编译结果
+     */
+    private static final class Plan<S, R> {
+        /**
+         * 预先解析的节点
+         */
+        private final @NonNull ParsedNode<S, ?, R>[] nodes;
+        /**
+         * 预先解析部分结束时的偏移量
+         */
+        private final int offset;
+        /**
+         * 需要重新解析时的起始节点, 全部节点均已解析时为 null
+         */
+        private final @Nullable Node<S, R> resumeNode;
+        /**
+         * 全部节点均已解析时是否可执行
+         */
+        private final boolean executable;
+        /**
+         * 编译时源节点的修改次数
+         */
+        private final int modCount;
+
+        private Plan(
+            @NonNull ParsedNode<S, ?, R>[] nodes,
+            int offset,
+            @Nullable Node<S, R> resumeNode,
+            boolean executable,
+            int modCount
+        ) {
+            this.nodes = nodes;
+            this.offset = offset;
+            this.resumeNode = resumeNode;
+            this.executable = executable;
+            this.modCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package pers.neige.colonel.node;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.reader.StringReader;
+import pers.neige.colonel.trie.LiteralTrie;
+import pers.neige.colonel.trie.PrefixIndex;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 编译后的只读节点树
+ * <p>
+ * 由 {@link Node#compile()} 生成，将节点树展开为以整数序号索引的扁平数组，并预先构建每个节点的字面量前缀树。<br>
+ * 解析时不再逐跳查询 Map，所有字面量的 {@link ParsedNode} 也已预先生成。<br>
+ * 编译结果不可变，可在多个线程间共享而无需加锁。
+ * <p>
+ * 编译结果是源节点树在编译时刻的快照，此后对源节点树的修改不会反映到编译结果中。<br>
+ * 解析得到的 {@link Context} 仍指向源节点，执行器、参数类型和补全器的行为与 {@link Node} 完全一致。
+ */
+@SuppressWarnings("unused")
+public final class CompiledTree<S, R> {
+    /**
+     * 源节点
+     */
+    @Getter
+    private final @NonNull Node<S, R> root;
+    /**
+     * 编译序号到源节点的映射, 序号 0 为源节点
+     */
+    private final @NonNull Node<S, R>[] nodes;
+    /**
+     * 编译序号到 ArgumentNode 类型子节点编译序号的映射, 不存在则为 -1
+     */
+    private final int @NonNull [] argumentChildren;
+    /**
+     * 编译序号到字面量分派表的映射, 不存在 LiteralNode 类型子节点则为 null
+     */
+    private final @Nullable LiteralTable<S, R>[] literalTables;
+
+    private CompiledTree(
+        @NonNull Node<S, R> root,
+        @NonNull Node<S, R>[] nodes,
+        int @NonNull [] argumentChildren,
+        @Nullable LiteralTable<S, R>[] literalTables
+    ) {
+        this.root = root;
+        this.nodes = nodes;
+        this.argumentChildren = argumentChildren;
+        this.literalTables = literalTables;
+    }
+
+    /**
+     * 编译节点树
+     *
+     * @param root 源节点
+     * @return 编译后的只读节点树
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, R> @NonNull CompiledTree<S, R> compile(@NonNull Node<S, R> root) {
+        val indexes = new IdentityHashMap<Node<S, R>, Integer>();
+        val order = new ArrayList<Node<S, R>>();
+        val stack = new ArrayDeque<Node<S, R>>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            val node = stack.pop();
+            if (indexes.containsKey(node)) continue;
+            indexes.put(node, order.size());
+            order.add(node);
+            val children = new ArrayList<>(node.getChildNodes().values());
+            for (int index = children.size() - 1; index >= 0; index--) {
+                stack.push(children.get(index));
+            }
+        }
+
+        val size = order.size();
+        val nodes = (Node<S, R>[]) order.toArray(new Node<?, ?>[0]);
+        val argumentChildren = new int[size];
+        val literalTables = (LiteralTable<S, R>[]) new LiteralTable<?, ?>[size];
+        for (int index = 0; index < size; index++) {
+            val node = nodes[index];
+            val argumentNode = node.getArgumentNode();
+            argumentChildren[index] = argumentNode == null ? -1 : indexes.get(argumentNode);
+            if (!node.getLiteralNodes().isEmpty()) {
+                literalTables[index] = LiteralTable.build(node, indexes);
+            }
+        }
+        return new CompiledTree<>(root, nodes, argumentChildren, literalTables);
+    }
+
+    /**
+     * @return 编译后的节点数量
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * 根据编译序号获取源节点
+     *
+     * @param index 编译序号
+     * @return 源节点
+     */
+    public @NonNull Node<S, R> getNode(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * 以逻辑执行为目的, 进行文本解析
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 解析上下文，可用于逻辑执行
+     * @see Node#parseExecuteContext(StringReader, Object)
+     */
+    public @NonNull Context<S, R> parseExecuteContext(@NonNull StringReader input, @Nullable S source) {
+        val nodeChain = new NodeChain<S, R>();
+        var current = 0;
+        input.skipSeparator();
+        while (true) {
+            val argumentIndex = argumentChildren[current];
+            if (argumentIndex >= 0) {
+                val argumentNode = (ArgumentNode<S, ?, R>) nodes[argumentIndex];
+                if (!argumentNode.canUse(source)) break;
+                val argument = argumentNode.getArgument();
+                ParsedNode<S, ?, R> next;
+                if (!input.canRead()) {
+                    if (!argument.hasDefaultValue()) break;
+                    next = new ParsedNode<>(argumentNode, argument.getDefaultValue(source));
+                } else {
+                    next = new ParsedNode<>(argumentNode, argument.parse(nodeChain, input, source));
+                }
+                nodeChain.add(next);
+                if (!next.isSuccess()) {
+                    return new Context<>(root, input, source, nodeChain, false);
+                }
+                current = argumentIndex;
+            } else {
+                val table = literalTables[current];
+                if (table == null) break;
+                val matched = table.match(input, source);
+                if (matched == null) break;
+                nodeChain.add(matched.parsedNode);
+                current = matched.index;
+            }
+            input.skipSeparator();
+        }
+        return new Context<>(root, input, source, nodeChain, true);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 执行结果
+     */
+    public @Nullable R execute(@NonNull StringReader input, @Nullable S source) {
+        return execute(input, source, null);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param input       输入的文本读取器
+     * @param source      执行源
+     * @param defExecutor 默认执行器
+     * @return 执行结果
+     */
+    public @Nullable R execute(@NonNull StringReader input, @Nullable S source, @Nullable Function<Context<S, R>, R> defExecutor) {
+        return parseExecuteContext(input, source).execute(defExecutor);
+    }
+
+    /**
+     * 以文本补全为目的, 进行文本解析
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 解析上下文，可用于文本补全
+     * @see Node#parseTabContext(StringReader, Object)
+     */
+    public @Nullable Context<S, R> parseTabContext(@NonNull StringReader input, @Nullable S source) {
+        val nodeChain = new NodeChain<S, R>();
+        if (parseTab(nodeChain, input, source) < 0) return null;
+        return new Context<>(root, input, source, nodeChain, false);
+    }
+
+    /**
+     * 文本补全
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input, @Nullable S source) {
+        val nodeChain = new NodeChain<S, R>();
+        val current = parseTab(nodeChain, input, source);
+        if (current < 0) {
+            return Collections.emptyList();
+        }
+        if (argumentChildren[current] >= 0) {
+            return new Context<>(root, input, source, nodeChain, false).tab();
+        }
+        val table = literalTables[current];
+        if (table == null) {
+            return Collections.emptyList();
+        }
+        return table.tab(input.peekRemaining(), source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 文本补全, 收集到 {@code limit} 条结果后立即停止
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @param limit  最大补全数量
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input, @Nullable S source, int limit) {
+        val sink = new CompletionSink(limit);
+        val nodeChain = new NodeChain<S, R>();
+        val current = parseTab(nodeChain, input, source);
+        if (current < 0) {
+            return sink.getSuggestions();
+        }
+        if (argumentChildren[current] >= 0) {
+            new Context<>(root, input, source, nodeChain, false).tab(sink);
+            return sink.getSuggestions();
+        }
+        val table = literalTables[current];
+        if (table != null) {
+            sink.addAll(table.tab(input.peekRemaining(), source, limit));
+        }
+        return sink.getSuggestions();
+    }
+
+    /**
+     * 以文本补全为目的, 进行文本解析
+     *
+     * @return 最后一个节点的编译序号, 无法补全则返回 -1
+     */
+    private int parseTab(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
+        var current = 0;
+        if (!input.canRead()) return current;
+        boolean skipped;
+        while (true) {
+            skipped = input.skipSeparator();
+            if (!input.canRead()) {
+                return skipped ? current : -1;
+            }
+            val start = input.getOffset();
+            val argumentIndex = argumentChildren[current];
+            if (argumentIndex >= 0) {
+                val argumentNode = (ArgumentNode<S, ?, R>) nodes[argumentIndex];
+                if (!argumentNode.canUse(source)) return current;
+                val parseResult = argumentNode.getArgument().parse(nodeChain, input, source);
+                if (!parseResult.isSuccess()) {
+                    return current;
+                }
+                if (!input.canRead() || !input.isSeparator(input.current())) {
+                    input.setOffset(start);
+                    return current;
+                }
+                nodeChain.add(new ParsedNode<>(argumentNode, parseResult));
+                current = argumentIndex;
+            } else {
+                val table = literalTables[current];
+                if (table == null) return current;
+                val matched = table.match(input, source);
+                if (matched == null) {
+                    return current;
+                }
+                if (!input.canRead() || !input.isSeparator(input.current())) {
+                    input.setOffset(start);
+                    return current;
+                }
+                nodeChain.add(matched.parsedNode);
+                current = matched.index;
+            }
+        }
+    }
+
+    /**
+     * 字面量分派表
+     */
+    private static final class LiteralTable<S, R> {
+        /**
+         * 小写识别名前缀树
+         */
+        private final @NonNull LiteralTrie<LiteralTarget<S, R>> trie;
+        /**
+         * 补全显示名前缀索引
+         */
+        private final @NonNull PrefixIndex tabIndex;
+        /**
+         * 是否存在设置了访问条件的字面量
+         */
+        private final boolean restricted;
+
+        private LiteralTable(
+            @NonNull LiteralTrie<LiteralTarget<S, R>> trie,
+            @NonNull PrefixIndex tabIndex,
+            boolean restricted
+        ) {
+            this.trie = trie;
+            this.tabIndex = tabIndex;
+            this.restricted = restricted;
+        }
+
+        private static <S, R> @NonNull LiteralTable<S, R> build(@NonNull Node<S, R> node, @NonNull Map<Node<S, R>, Integer> indexes) {
+            val trie = new LiteralTrie<LiteralTarget<S, R>>();
+            node.getLiteralNodes().forEach((name, literal) -> trie.put(name, new LiteralTarget<>(Node.parsedLiteral(literal, name), indexes.get(literal))));
+            return new LiteralTable<>(trie, node.getTabIndex(), node.hasRestrictedChildren());
+        }
+
+        /**
+         * 匹配下一个字面量, 匹配成功时偏移量移动到字面量末尾
+         *
+         * @param input  输入的文本读取器
+         * @param source 执行源
+         * @return 匹配结果, 匹配失败或执行源无法访问时返回 null
+         */
+        private @Nullable LiteralTarget<S, R> match(@NonNull StringReader input, @Nullable S source) {
+            val start = input.getOffset();
+            val entry = trie.match(input);
+            if (entry == null) return null;
+            val target = entry.getValue();
+            if (restricted && !target.parsedNode.getNode().canUse(source)) {
+                input.setOffset(start);
+                return null;
+            }
+            return target;
+        }
+
+        /**
+         * 根据剩余文本进行字面量补全, 跳过执行源无法访问的字面量
+         *
+         * @param remaining 剩余文本
+         * @param source    执行源
+         * @param limit     最大补全数量
+         * @return 补全文本
+         */
+        private @NonNull List<String> tab(@NonNull String remaining, @Nullable S source, int limit) {
+            if (!restricted) return tabIndex.match(remaining, limit);
+            val result = new ArrayList<String>();
+            for (val name : tabIndex.match(remaining)) {
+                if (result.size() >= limit) break;
+                val target = trie.get(name);
+                if (target == null || target.parsedNode.getNode().canUse(source)) {
+                    result.add(name);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 字面量匹配结果
+     */
+    @AllArgsConstructor
+    private static final class LiteralTarget<S, R> {
+        /**
+         * 预生成的解析后节点
+         */
+        private final @NonNull ParsedNode<S, ?, R> parsedNode;
+        /**
+         * 子节点的编译序号
+         */
+        private final int index;
+    }
+}
@@ -3,39 +3,56 @@ package pers.neige.colonel.node;
 import lombok.*;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Nullable;
-import org.neosearch.stringsearcher.StringSearcher;
 import pers.neige.colonel.arguments.Argument;
 import pers.neige.colonel.arguments.ParseResult;
+import pers.neige.colonel.capability.CapabilityRegistry;
+import pers.neige.colonel.capability.CapabilitySource;
+import pers.neige.colonel.context.AsyncExecutors;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.context.ConcurrentCompletionSink;
 import pers.neige.colonel.context.Context;
+import pers.neige.colonel.context.ContextPool;
 import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.context.ParseCache;
 import pers.neige.colonel.node.impl.ArgumentNode;
 import pers.neige.colonel.node.impl.LiteralNode;
 import pers.neige.colonel.reader.StringReader;
+import pers.neige.colonel.trie.LiteralTrie;
+import pers.neige.colonel.trie.PrefixIndex;
 
 import java.security.InvalidParameterException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * 节点
+ * <p>
+ * 子节点以不可变快照的形式保存, 修改节点树时先构建新的快照, 再整体发布（写时复制）。<br>
+ * 解析与补全不加任何锁, 每一步只读取一次快照, 因此总能看到某一时刻完整一致的子节点集合;<br>
+ * 所有修改操作通过全局的修改锁串行执行。需要一次性发布多处修改时, 可先构建游离的子树, 再通过一次 {@link Node#then(Node)} 接入。
  */
 @SuppressWarnings("unused")
 @ToString(of = {"id", "tabNames"})
 public abstract class Node<S, R> {
     /**
-     * 所有子节点
-     */
-    protected final @NonNull Map<String, Node<S, R>> childNodes = new LinkedHashMap<>();
-    /**
-     * 所有 LiteralNode 类型子节点
+     * 节点树的修改锁, 只有修改操作需要持有
      */
-    protected final @NonNull Map<String, LiteralNode<S, ?, R>> literalNodes = new LinkedHashMap<>();
+    private static final Object MUTATION_LOCK = new Object();
+
     /**
-     * 所有 LiteralNode 类型子节点
+     * 当前发布的子节点快照
      */
-    protected final @NonNull Set<LiteralNode<S, ?, R>> literalNodesSet = new LinkedHashSet<>();
+    @SuppressWarnings("unchecked")
+    protected volatile @NonNull Children<S, R> children = (Children<S, R>) Children.EMPTY;
     /**
      * 标识符
      */
@@ -51,35 +68,64 @@ public abstract class Node<S, R> {
      */
     @Getter
     protected final @NonNull Set<String> tabNames;
-    /**
-     * LiteralNode 类型子节点的小写识别名中出现过的字符
-     */
-    protected final @NonNull Set<Character> literalChars = new HashSet<>();
     /**
      * 父节点
      */
     @Getter
     protected @Nullable Node<S, R> parentNode = null;
     /**
-     * LiteralNode 识别名搜索器，仅在识别名中包含传入的 StringReader 分隔符时启用
+     * 执行器
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    protected @Nullable Function<Context<S, R>, R> executor;
+    /**
+     * 异步执行器, 通过 {@link Node#executeAsync(StringReader, Object, Executor)} 执行时优先于 {@link Node#executor}
      */
-    protected @Nullable StringSearcher<LiteralNode<S, ?, R>> literalNodesSearcher = null;
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    protected @Nullable Function<Context<S, R>, CompletionStage<R>> asyncExecutor;
     /**
-     * LiteralNode 类型子节点的最大长度
+     * 访问条件, 为 null 时任何执行源均可访问<br>
+     * 执行源不满足条件时, 解析与补全均视当前节点为不存在
      */
-    protected int literalNodesMaxLength = 0;
+    @Getter
+    protected volatile @Nullable Predicate<S> requirement;
     /**
-     * ArgumentNode 类型子节点
+     * 所需能力的位掩码, 为 0 时不检查<br>
+     * 执行源的能力位集（{@link CapabilitySource#getCapabilities()}）须包含全部所需能力, 检查只需一次按位与, 先于 {@link Node#requirement} 进行
      */
     @Getter
-    protected @Nullable ArgumentNode<S, ?, R> argumentNode = null;
+    protected volatile long requiredCapabilities;
     /**
-     * 执行器
+     * 解析结果缓存, 为 null 时不启用
      */
     @Getter
     @Setter
     @Accessors(chain = true)
-    protected @Nullable Function<Context<S, R>, R> executor;
+    protected @Nullable ParseCache<S, R> parseCache;
+    /**
+     * 逻辑执行时是否从当前线程的 {@link ContextPool} 获取并回收上下文<br>
+     * 启用后执行器收到的上下文只在执行期间有效, 需要继续持有时应使用 {@link Context#snapshot()}<br>
+     * 设置了 {@link Node#parseCache} 时不生效
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    protected boolean contextPooling = false;
+    /**
+     * 节点深度, 根节点为 0<br>
+     * 从根节点开始解析时, 深度为 n 的节点在节点链中的下标为 n - 1
+     */
+    @Getter
+    protected int depth = 0;
+    /**
+     * 当前节点及所有后代节点的结构修改次数
+     */
+    @Getter
+    protected volatile int modCount = 0;
 
     protected Node(
         @NonNull String id
@@ -130,53 +176,233 @@ public abstract class Node<S, R> {
      *
      * @param parentNode 父节点
      * @param childNode  子节点
-     * @param build      对于 LiteralNode，是否立即构建字符搜索器
+     * @param build      对于 LiteralNode，是否立即将其识别名加入字符搜索器（已构建时为增量插入, 否则完整构建）<br>
+     *                   为 {@code false} 时字符搜索器将被标记为未构建, 需要在最后调用 {@link Node#buildLiteralSearcher()}
      * @return {@code parentNode}
      */
     public static <N extends Node<S, R>, S, R> @NonNull N then(@NonNull N parentNode, @NonNull Node<S, R> childNode, boolean build) {
-        if (childNode instanceof LiteralNode) {
-            if (parentNode.argumentNode != null) {
+        synchronized (MUTATION_LOCK) {
+            val current = parentNode.children;
+            val childNodes = current.childNodes.with(childNode.getId(), childNode);
+            val restricted = current.restricted || childNode.isRestricted();
+            Children<S, R> next;
+            if (childNode instanceof LiteralNode) {
+                if (current.argumentNode != null) {
+                    throw new InvalidParameterException("Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode");
+                }
+                val literal = (LiteralNode<S, ?, R>) childNode;
+                var literalNodes = current.literalNodes;
+                LiteralTrie<ParsedNode<S, ?, R>> trie = null;
+                if (build) {
+                    trie = current.literalTrie == null ? buildTrie(literalNodes) : current.literalTrie.copy();
+                }
+                for (val name : literal.getNames()) {
+                    literalNodes = literalNodes.with(name, literal);
+                    if (trie != null) trie.put(name, parsedLiteral(literal, name));
+                }
+                next = new Children<>(childNodes, literalNodes, current.literalNodeMap.with(literal, literal), trie, null, restricted);
+            } else if (childNode instanceof ArgumentNode) {
+                if (!current.literalNodes.isEmpty()) {
+                    throw new InvalidParameterException("Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode");
+                }
+                next = new Children<>(childNodes, current.literalNodes, current.literalNodeMap, null, (ArgumentNode<S, ?, R>) childNode, restricted);
+            } else {
                 throw new InvalidParameterException("Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode");
             }
-            for (String name : childNode.getNames()) {
-                parentNode.literalNodes.put(name, (LiteralNode<S, ?, R>) childNode);
-                parentNode.literalNodesSet.add((LiteralNode<S, ?, R>) childNode);
-                parentNode.literalNodesMaxLength = Math.max(parentNode.literalNodesMaxLength, name.length());
-                name.chars().forEach(c -> parentNode.literalChars.add((char) c));
-            }
-            if (build) parentNode.buildLiteralSearcher();
-        } else if (childNode instanceof ArgumentNode) {
-            if (!parentNode.literalNodes.isEmpty()) {
-                throw new InvalidParameterException("Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode");
+            childNode.parentNode = parentNode;
+            childNode.updateDepth(parentNode.depth + 1);
+            parentNode.children = next;
+            parentNode.markModified();
+        }
+        return parentNode;
+    }
+
+    /**
+     * 在父节点后批量接续字面量节点<br>
+     * 所有识别名校验通过后才会写入父节点, 字符搜索器在最后统一构建一次（已构建时为增量插入）<br>
+     * 同一个 Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode，不可混合构建
+     *
+     * @param parentNode 父节点
+     * @param literals   字面量节点
+     * @return {@code parentNode}
+     */
+    public static <N extends Node<S, R>, S, R> @NonNull N thenLiterals(@NonNull N parentNode, @NonNull Collection<? extends LiteralNode<S, ?, R>> literals) {
+        synchronized (MUTATION_LOCK) {
+            ((Node<S, R>) parentNode).publishLiterals(literals);
+        }
+        return parentNode;
+    }
+
+    /**
+     * 校验并发布一批字面量节点, 调用方需持有修改锁
+     */
+    private void publishLiterals(@NonNull Collection<? extends LiteralNode<S, ?, R>> literals) {
+        val current = children;
+        if (current.argumentNode != null) {
+            throw new InvalidParameterException("Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode");
+        }
+        var nameCount = 0;
+        for (val literal : literals) {
+            nameCount += literal.getNames().size();
+        }
+        val batchLiteralNodes = new LinkedHashMap<String, LiteralNode<S, ?, R>>(capacity(nameCount));
+        val batchChildNodes = new LinkedHashMap<String, Node<S, R>>(capacity(literals.size()));
+        for (val literal : literals) {
+            for (val name : literal.getNames()) {
+                var pre = batchLiteralNodes.put(name, literal);
+                if (pre == null) pre = current.literalNodes.get(name);
+                if (pre == null || pre == literal) continue;
+                throw new InvalidParameterException("LiteralNode names are case insensitive, do not enter duplicate recognition names, duplicate name is: " + name + ", pre node is: " + pre.getId() + ", current node is: " + literal.getId());
             }
-            parentNode.argumentNode = (ArgumentNode<S, ?, R>) childNode;
+            batchChildNodes.put(literal.getId(), literal);
+        }
+        var literalNodes = current.literalNodes;
+        for (val entry : batchLiteralNodes.entrySet()) {
+            literalNodes = literalNodes.with(entry.getKey(), entry.getValue());
+        }
+        var literalNodeMap = current.literalNodeMap;
+        var restricted = current.restricted;
+        for (val literal : literals) {
+            literalNodeMap = literalNodeMap.with(literal, literal);
+            restricted = restricted || ((Node<S, R>) literal).isRestricted();
+        }
+        var childNodes = current.childNodes;
+        for (val child : batchChildNodes.values()) {
+            childNodes = childNodes.with(child.getId(), child);
+        }
+        LiteralTrie<ParsedNode<S, ?, R>> trie;
+        if (current.literalTrie != null) {
+            trie = current.literalTrie.copy();
+            batchLiteralNodes.forEach((name, literal) -> trie.put(name, parsedLiteral(literal, name)));
         } else {
-            throw new InvalidParameterException("Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode");
+            trie = buildTrie(literalNodes);
         }
-        parentNode.childNodes.put(childNode.getId(), childNode);
-        childNode.parentNode = parentNode;
-        return parentNode;
+        for (val literal : literals) {
+            literal.parentNode = this;
+            literal.updateDepth(depth + 1);
+        }
+        children = new Children<>(childNodes, literalNodes, literalNodeMap, trie, null, restricted);
+        markModified();
+    }
+
+    /**
+     * 移除子节点, 正在进行的解析不受影响
+     *
+     * @param id 子节点标识符
+     * @return 被移除的子节点, 不存在则返回 null
+     */
+    public @Nullable Node<S, R> remove(@NonNull String id) {
+        synchronized (MUTATION_LOCK) {
+            val current = children;
+            val child = current.childNodes.get(id);
+            if (child == null) return null;
+            val childNodes = current.childNodes.without(id);
+            if (child == current.argumentNode) {
+                children = new Children<>(childNodes, current.literalNodes, current.literalNodeMap, null, null, Children.isRestricted(childNodes));
+            } else {
+                var literalNodes = current.literalNodes;
+                for (val name : child.getNames()) {
+                    if (literalNodes.get(name) == child) literalNodes = literalNodes.without(name);
+                }
+                val literalNodeMap = current.literalNodeMap.without(child);
+                var trie = current.literalTrie;
+                if (trie != null) {
+                    trie = trie.copy();
+                    for (val name : child.getNames()) {
+                        val entry = trie.get(name);
+                        if (entry != null && entry.getNode() == child) trie.remove(name);
+                    }
+                }
+                children = new Children<>(childNodes, literalNodes, literalNodeMap, trie, null, Children.isRestricted(childNodes));
+            }
+            if (child.parentNode == this) {
+                child.parentNode = null;
+            }
+            markModified();
+            return child;
+        }
+    }
+
+    /**
+     * 增加当前节点及所有祖先节点的修改次数, 使其解析结果缓存失效
+     */
+    protected void markModified() {
+        Node<S, R> node = this;
+        while (node != null) {
+            node.modCount++;
+            node = node.parentNode;
+        }
+    }
+
+    /**
+     * 更新当前节点及所有后代节点的深度
+     *
+     * @param depth 当前节点的新深度
+     */
+    protected void updateDepth(int depth) {
+        if (this.depth == depth) return;
+        val stack = new ArrayDeque<Node<S, R>>();
+        this.depth = depth;
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            val node = stack.pop();
+            for (val child : node.children.childNodes.values()) {
+                child.depth = node.depth + 1;
+                stack.push(child);
+            }
+        }
+    }
+
+    /**
+     * 根据元素数量计算 HashMap 的初始容量, 避免扩容
+     */
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75F + 1.0F);
     }
 
     /**
      * 所有子节点
      */
     public @NonNull Map<String, Node<S, R>> getChildNodes() {
-        return Collections.unmodifiableMap(childNodes);
+        return children.childNodes;
     }
 
     /**
      * 所有 LiteralNode 类型子节点
      */
     public @NonNull Map<String, LiteralNode<S, ?, R>> getLiteralNodes() {
-        return Collections.unmodifiableMap(literalNodes);
+        return children.literalNodes;
     }
 
     /**
      * 所有 LiteralNode 类型子节点
      */
     public @NonNull Set<LiteralNode<S, ?, R>> getLiteralNodesSet() {
-        return Collections.unmodifiableSet(literalNodesSet);
+        return children.literalNodesSet;
+    }
+
+    /**
+     * ArgumentNode 类型子节点
+     */
+    public @Nullable ArgumentNode<S, ?, R> getArgumentNode() {
+        return children.argumentNode;
+    }
+
+    /**
+     * LiteralNode 类型子节点的补全显示名前缀索引, 尚未构建时立即构建
+     */
+    public @NonNull PrefixIndex getTabIndex() {
+        val current = children;
+        var index = current.tabIndex;
+        if (index == null) {
+            val names = new ArrayList<String>();
+            for (val literal : current.literalNodesSet) {
+                names.addAll(literal.getTabNames());
+            }
+            index = new PrefixIndex(names);
+            current.tabIndex = index;
+        }
+        return index;
     }
 
     /**
@@ -194,6 +420,103 @@ public abstract class Node<S, R> {
         return this;
     }
 
+    /**
+     * 设置访问条件, 父节点的修改次数随之增加
+     *
+     * @param requirement 访问条件, 为 null 时任何执行源均可访问
+     */
+    public Node<S, R> setRequirement(@Nullable Predicate<S> requirement) {
+        synchronized (MUTATION_LOCK) {
+            this.requirement = requirement;
+            republishParent();
+        }
+        return this;
+    }
+
+    /**
+     * 设置所需能力的位掩码, 父节点的修改次数随之增加
+     *
+     * @param requiredCapabilities 位掩码, 通常由 {@link CapabilityRegistry#mask(String...)} 编译得到, 为 0 时不检查
+     */
+    public Node<S, R> setRequiredCapabilities(long requiredCapabilities) {
+        synchronized (MUTATION_LOCK) {
+            this.requiredCapabilities = requiredCapabilities;
+            republishParent();
+        }
+        return this;
+    }
+
+    /**
+     * 声明所需能力, 能力名在此时编译为位掩码, 与已有的所需能力合并
+     *
+     * @param registry 能力注册表
+     * @param names    能力名
+     */
+    public Node<S, R> requireCapabilities(@NonNull CapabilityRegistry registry, @NonNull String... names) {
+        return setRequiredCapabilities(requiredCapabilities | registry.mask(names));
+    }
+
+    /**
+     * @param source 执行源
+     * @return 执行源是否拥有全部所需能力, 并满足当前节点的访问条件
+     */
+    public boolean canUse(@Nullable S source) {
+        val required = requiredCapabilities;
+        if (required != 0L && (CapabilitySource.capabilitiesOf(source) & required) != required) return false;
+        val requirement = this.requirement;
+        return requirement == null || requirement.test(source);
+    }
+
+    /**
+     * @return 当前节点是否设置了访问条件或所需能力
+     */
+    boolean isRestricted() {
+        return requirement != null || requiredCapabilities != 0L;
+    }
+
+    /**
+     * 访问条件变化后重新发布父节点的子节点快照, 使其重新计算 {@link Children#restricted}
+     */
+    private void republishParent() {
+        val parent = parentNode;
+        if (parent != null) {
+            val current = parent.children;
+            parent.children = new Children<>(current.childNodes, current.literalNodes, current.literalNodeMap, current.literalTrie, current.argumentNode, Children.isRestricted(current.childNodes));
+            parent.markModified();
+        }
+    }
+
+    /**
+     * @return 是否存在设置了访问条件或所需能力的子节点
+     */
+    public boolean hasRestrictedChildren() {
+        return children.restricted;
+    }
+
+    /**
+     * 补全 LiteralNode 类型子节点的显示名, 跳过执行源无法访问的子节点
+     *
+     * @param remaining 剩余文本
+     * @param source    执行源
+     * @param limit     最大补全数量
+     * @return 补全结果
+     */
+    public @NonNull List<String> tabLiterals(@NonNull String remaining, @Nullable S source, int limit) {
+        val current = children;
+        if (!current.restricted) {
+            return getTabIndex().match(remaining, limit);
+        }
+        val result = new ArrayList<String>();
+        for (val name : getTabIndex().match(remaining)) {
+            if (result.size() >= limit) break;
+            val literal = current.literalNodes.get(name.toLowerCase(Locale.ENGLISH));
+            if (literal == null || literal.canUse(source)) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
     /**
      * 在当前节点后接续其他子节点<br>
      * 同一个 Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode，不可混合构建
@@ -306,6 +629,32 @@ public abstract class Node<S, R> {
         return node;
     }
 
+    /**
+     * 批量接续字面量节点, 字符搜索器只构建一次<br>
+     * 同一个 Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode，不可混合构建
+     *
+     * @param literals 字面量节点
+     * @return {@code this}
+     */
+    public @NonNull Node<S, R> thenLiterals(@NonNull Collection<? extends LiteralNode<S, ?, R>> literals) {
+        return Node.thenLiterals(this, literals);
+    }
+
+    /**
+     * 根据传入的映射批量生成字面量节点并接续到当前节点后, 字符搜索器只构建一次<br>
+     * 每个键生成一个以该键为ID的字面量节点, 对应的值为节点值<br>
+     * 同一个 Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode，不可混合构建
+     *
+     * @param keyToPayload 节点ID到节点值的映射
+     * @return 新生成的字面量节点
+     */
+    public <A> @NonNull List<LiteralNode<S, A, R>> thenLiterals(@NonNull Map<String, A> keyToPayload) {
+        val literals = new ArrayList<LiteralNode<S, A, R>>(keyToPayload.size());
+        keyToPayload.forEach((key, value) -> literals.add(LiteralNode.literal(key, Collections.singletonMap(key, value))));
+        Node.thenLiterals(this, literals);
+        return literals;
+    }
+
     /**
      * 根据传入的参数生成一个参数节点，将它接续到当前节点后并返回<br>
      * 同一个 Node 后只能跟随多个 LiteralNode 或 一个 ArgumentNode，不可混合构建
@@ -324,12 +673,52 @@ public abstract class Node<S, R> {
     }
 
     /**
-     * 构建字符搜索器
+     * 构建字符搜索器（字面量前缀树）
      */
     public void buildLiteralSearcher() {
-        val builder = StringSearcher.<LiteralNode<S, ?, R>>builderWithPayload().ignoreOverlaps();
-        literalNodes.forEach(builder::addSearchString);
-        literalNodesSearcher = builder.build();
+        while (true) {
+            val current = children;
+            val trie = buildTrie(current.literalNodes);
+            synchronized (MUTATION_LOCK) {
+                if (children == current) {
+                    children = new Children<>(current.childNodes, current.literalNodes, current.literalNodeMap, trie, current.argumentNode, current.restricted);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static <S, R> @NonNull LiteralTrie<ParsedNode<S, ?, R>> buildTrie(@NonNull Map<String, LiteralNode<S, ?, R>> literalNodes) {
+        val trie = new LiteralTrie<ParsedNode<S, ?, R>>();
+        literalNodes.forEach((name, literal) -> trie.put(name, parsedLiteral(literal, name)));
+        return trie;
+    }
+
+    /**
+     * 构建当前节点及所有后代节点的字符搜索器, 各子树通过 {@link ForkJoinPool#commonPool()} 并行构建
+     */
+    public void buildAllLiteralSearchers() {
+        buildAllLiteralSearchers(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 构建当前节点及所有后代节点的字符搜索器, 各子树通过指定的线程池并行构建
+     *
+     * @param pool 用于构建的线程池
+     */
+    public void buildAllLiteralSearchers(@NonNull ForkJoinPool pool) {
+        pool.invoke(new BuildLiteralSearcherTask<>(this));
+    }
+
+    /**
+     * 生成字面量节点对应识别名的解析后节点
+     *
+     * @param literal 字面量节点
+     * @param name    小写识别名
+     * @return 解析后节点
+     */
+    protected static <S, A, R> @NonNull ParsedNode<S, A, R> parsedLiteral(@NonNull LiteralNode<S, A, R> literal, @NonNull String name) {
+        return new ParsedNode<>(literal, new ParseResult<>(literal.getKeyToPayload().get(name), true));
     }
 
     /**
@@ -339,10 +728,11 @@ public abstract class Node<S, R> {
      * @return 下一个节点
      */
     public @Nullable Node<S, R> getNextNode(@NonNull StringReader input) {
-        if (argumentNode != null) {
-            return argumentNode;
+        val current = children;
+        if (current.argumentNode != null) {
+            return current.argumentNode;
         }
-        val literalMatchResult = matchLiteralNode(input);
+        val literalMatchResult = matchLiteralNode(current, input);
         return literalMatchResult == null ? null : literalMatchResult.getNode();
     }
 
@@ -352,32 +742,25 @@ public abstract class Node<S, R> {
      * @param input 输入的文本读取器
      * @return 下一个字面量节点
      */
-    private @Nullable ParsedNode<S, ?, R> matchLiteralNode(@NonNull StringReader input) {
+    protected @Nullable ParsedNode<S, ?, R> matchLiteralNode(@NonNull StringReader input) {
+        return matchLiteralNode(children, input);
+    }
+
+    private static <S, R> @Nullable ParsedNode<S, ?, R> matchLiteralNode(@NonNull Children<S, R> children, @NonNull StringReader input) {
         if (!input.canRead()) return null;
-        if (literalNodesSearcher != null && input.containsSeparator(literalChars)) {
-            val textToParse = input.peek(literalNodesMaxLength).toLowerCase(Locale.ENGLISH);
-            val emit = literalNodesSearcher.firstMatch(textToParse);
-            if (emit == null) return null;
-            val text = emit.getSearchString();
-            if (!textToParse.startsWith(text)) return null;
-            input.skip(text.length());
-            if (!input.canRead() || input.isSeparator(input.current())) {
-                val literal = emit.getPayload();
-                return literal == null ? null : new ParsedNode<>(literal, new ParseResult<>(literal.getKeyToPayload().get(text), true));
-            } else {
-                input.skip(-text.length());
-                return null;
-            }
-        } else {
-            val start = input.getOffset();
-            val text = input.readLowerCaseString();
-            val literal = literalNodes.get(text);
-            if (literal == null) {
-                input.setOffset(start);
-                return null;
-            }
-            return new ParsedNode<>(literal, new ParseResult<>(literal.getKeyToPayload().get(text), true));
+        val trie = children.literalTrie;
+        if (trie != null) {
+            val entry = trie.match(input);
+            return entry == null ? null : entry.getValue();
+        }
+        val start = input.getOffset();
+        val text = input.readLowerCaseString();
+        val literal = children.literalNodes.get(text);
+        if (literal == null) {
+            input.setOffset(start);
+            return null;
         }
+        return parsedLiteral(literal, text);
     }
 
     /**
@@ -387,7 +770,12 @@ public abstract class Node<S, R> {
      * @return 下一个节点
      */
     private @Nullable ParsedNode<S, ?, R> getParsedNextNode(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, @Nullable S source) {
+        val current = children;
+        val argumentNode = current.argumentNode;
         if (argumentNode != null) {
+            if (!argumentNode.canUse(source)) {
+                return null;
+            }
             if (!input.canRead()) {
                 if (argumentNode.getArgument().hasDefaultValue()) {
                     return new ParsedNode<>(argumentNode, argumentNode.getArgument().getDefaultValue(source));
@@ -397,21 +785,75 @@ public abstract class Node<S, R> {
             } else {
                 return new ParsedNode<>(argumentNode, argumentNode.getArgument().parse(nodeChain, input, source));
             }
+        } else if (current.restricted) {
+            val start = input.getOffset();
+            val next = matchLiteralNode(current, input);
+            if (next != null && !next.getNode().canUse(source)) {
+                input.setOffset(start);
+                return null;
+            }
+            return next;
         } else {
-            return matchLiteralNode(input);
+            return matchLiteralNode(current, input);
         }
     }
 
     /**
-     * 以逻辑执行为目的, 进行文本解析
+     * 以逻辑执行为目的, 进行文本解析<br>
+     * 设置了 {@link Node#parseCache} 且从偏移量 0 开始读取时, 优先从解析结果缓存中还原
      *
      * @param input  输入的文本读取器
      * @param source 执行源
      * @return 解析上下文，可用于逻辑执行
      */
     public @NonNull Context<S, R> parseExecuteContext(@NonNull StringReader input, @Nullable S source) {
-        val nodeChain = new NodeChain<S, R>();
-        Node<S, R> current = this;
+        val cache = parseCache;
+        if (cache == null || input.getOffset() != 0) {
+            return parseExecuteContext(this, new NodeChain<>(), input, source);
+        }
+        val cached = cache.get(this, input, source, modCount);
+        if (cached != null) {
+            return cached;
+        }
+        val context = parseExecuteContext(this, new NodeChain<>(), input, source);
+        cache.put(context, modCount);
+        return context;
+    }
+
+    /**
+     * 从已解析的节点继续以逻辑执行为目的进行文本解析, 不经过解析结果缓存
+     *
+     * @param current   已解析到的节点, 为当前节点或节点链中的最后一个节点
+     * @param nodeChain 此前已解析的节点链
+     * @param input     输入的文本读取器, 偏移量位于 {@code current} 对应文本的末尾
+     * @param source    执行源
+     * @return 解析上下文，可用于逻辑执行
+     */
+    protected @NonNull Context<S, R> parseExecuteContext(
+        @NonNull Node<S, R> current,
+        @NonNull NodeChain<S, R> nodeChain,
+        @NonNull StringReader input,
+        @Nullable S source
+    ) {
+        val executable = parseExecute(current, nodeChain, input, source);
+        return new Context<>(this, input, source, nodeChain, executable);
+    }
+
+    /**
+     * 从已解析的节点继续以逻辑执行为目的进行文本解析, 解析结果写入 {@code nodeChain}
+     *
+     * @param current   已解析到的节点, 为当前节点或节点链中的最后一个节点
+     * @param nodeChain 此前已解析的节点链
+     * @param input     输入的文本读取器, 偏移量位于 {@code current} 对应文本的末尾
+     * @param source    执行源
+     * @return 是否可执行
+     */
+    protected boolean parseExecute(
+        @NonNull Node<S, R> current,
+        @NonNull NodeChain<S, R> nodeChain,
+        @NonNull StringReader input,
+        @Nullable S source
+    ) {
         input.skipSeparator();
         while (true) {
             val next = current.getParsedNextNode(nodeChain, input, source);
@@ -424,12 +866,12 @@ public abstract class Node<S, R> {
             } else if (current instanceof ArgumentNode) {
                 nodeChain.add(next);
                 if (!next.isSuccess()) {
-                    return new Context<>(this, input, source, nodeChain, false);
+                    return false;
                 }
             }
             input.skipSeparator();
         }
-        return new Context<>(this, input, source, nodeChain, true);
+        return true;
     }
 
     /**
@@ -452,7 +894,143 @@ public abstract class Node<S, R> {
      * @return 执行结果
      */
     public @Nullable R execute(@NonNull StringReader input, @Nullable S source, @Nullable Function<Context<S, R>, R> defExecutor) {
-        return parseExecuteContext(input, source).execute(defExecutor);
+        if (!contextPooling || parseCache != null) {
+            return parseExecuteContext(input, source).execute(defExecutor);
+        }
+        val pool = ContextPool.current();
+        val nodeChain = pool.<S, R>acquireNodeChain();
+        val executable = parseExecute(this, nodeChain, input, source);
+        val context = pool.acquire(this, input, source, nodeChain, executable);
+        try {
+            return context.execute(defExecutor);
+        } finally {
+            pool.release(context);
+        }
+    }
+
+    /**
+     * 在 {@link AsyncExecutors#defaultExecutor()} 中异步逻辑执行
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @return 执行结果
+     * @see Node#executeAsync(StringReader, Object, Executor, Function)
+     */
+    public @NonNull CompletableFuture<R> executeAsync(@NonNull StringReader input, @Nullable S source) {
+        return executeAsync(input, source, AsyncExecutors.defaultExecutor(), null);
+    }
+
+    /**
+     * 异步逻辑执行
+     *
+     * @param input    输入的文本读取器
+     * @param source   执行源
+     * @param executor 执行任务的线程池
+     * @return 执行结果
+     * @see Node#executeAsync(StringReader, Object, Executor, Function)
+     */
+    public @NonNull CompletableFuture<R> executeAsync(@NonNull StringReader input, @Nullable S source, @NonNull Executor executor) {
+        return executeAsync(input, source, executor, null);
+    }
+
+    /**
+     * 异步逻辑执行
+     * <p>
+     * 文本解析与执行器调用均在 {@code executor} 中进行, 调用线程不会被阻塞, 执行期间不应再修改 {@code input}。<br>
+     * 执行器的选取规则见 {@link Context#executeAsync(Function, Executor)}。
+     *
+     * @param input       输入的文本读取器
+     * @param source      执行源
+     * @param executor    执行任务的线程池
+     * @param defExecutor 默认执行器
+     * @return 执行结果
+     */
+    public @NonNull CompletableFuture<R> executeAsync(
+        @NonNull StringReader input,
+        @Nullable S source,
+        @NonNull Executor executor,
+        @Nullable Function<Context<S, R>, R> defExecutor
+    ) {
+        return CompletableFuture.supplyAsync(() -> parseExecuteContext(input, source).executeAsync(defExecutor, Runnable::run), executor)
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * 以逻辑执行为目的, 通过 {@link ForkJoinPool#commonPool()} 并行解析一批输入<br>
+     * 读取器使用默认的分隔符与转义符, 解析期间节点树必须保持只读
+     *
+     * @param inputs       输入文本
+     * @param sourceGetter 根据输入文本获取执行源
+     * @return 按输入顺序排列的解析上下文
+     */
+    public @NonNull List<Context<S, R>> parseAll(@NonNull List<String> inputs, @NonNull Function<String, S> sourceGetter) {
+        return parseAll(inputs, sourceGetter, StringReader.of(""), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 以逻辑执行为目的, 并行解析一批输入<br>
+     * 首个文本片段相同的输入会被分为一组, 组内首个字面量只匹配一次, 解析期间节点树必须保持只读
+     *
+     * @param inputs       输入文本
+     * @param sourceGetter 根据输入文本获取执行源
+     * @param template     读取器模板, 每个输入通过 {@link StringReader#newReaderWithSameConfig(String)} 创建读取器
+     * @param pool         执行解析任务的线程池
+     * @return 按输入顺序排列的解析上下文
+     */
+    public @NonNull List<Context<S, R>> parseAll(
+        @NonNull List<String> inputs,
+        @NonNull Function<String, S> sourceGetter,
+        @NonNull StringReader template,
+        @NonNull ForkJoinPool pool
+    ) {
+        return Arrays.asList(new BatchParser<>(this, template, inputs, sourceGetter, false).parse(pool));
+    }
+
+    /**
+     * 并行解析一批输入, 随后按输入顺序依次执行
+     *
+     * @param inputs       输入文本
+     * @param sourceGetter 根据输入文本获取执行源
+     * @return 按输入顺序排列的执行结果
+     * @see Node#parseAll(List, Function)
+     */
+    public @NonNull List<R> executeAll(@NonNull List<String> inputs, @NonNull Function<String, S> sourceGetter) {
+        return executeAll(inputs, sourceGetter, false);
+    }
+
+    /**
+     * 并行解析一批输入并执行
+     *
+     * @param inputs          输入文本
+     * @param sourceGetter    根据输入文本获取执行源
+     * @param parallelExecute 为 {@code true} 时执行器在解析线程中并行执行, 执行顺序不确定;<br>
+     *                        为 {@code false} 时全部解析完成后在当前线程按输入顺序依次执行
+     * @return 按输入顺序排列的执行结果
+     * @see Node#parseAll(List, Function)
+     */
+    public @NonNull List<R> executeAll(@NonNull List<String> inputs, @NonNull Function<String, S> sourceGetter, boolean parallelExecute) {
+        return executeAll(inputs, sourceGetter, parallelExecute, StringReader.of(""), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行解析一批输入并执行
+     *
+     * @param inputs          输入文本
+     * @param sourceGetter    根据输入文本获取执行源
+     * @param parallelExecute 为 {@code true} 时执行器在解析线程中并行执行, 执行顺序不确定;<br>
+     *                        为 {@code false} 时全部解析完成后在当前线程按输入顺序依次执行
+     * @param template        读取器模板, 每个输入通过 {@link StringReader#newReaderWithSameConfig(String)} 创建读取器
+     * @param pool            执行解析任务的线程池
+     * @return 按输入顺序排列的执行结果
+     */
+    public @NonNull List<R> executeAll(
+        @NonNull List<String> inputs,
+        @NonNull Function<String, S> sourceGetter,
+        boolean parallelExecute,
+        @NonNull StringReader template,
+        @NonNull ForkJoinPool pool
+    ) {
+        return new BatchParser<>(this, template, inputs, sourceGetter, parallelExecute).execute(pool);
     }
 
     /**
@@ -463,8 +1041,26 @@ public abstract class Node<S, R> {
      * @return 解析上下文，可用于文本补全
      */
     public @Nullable Context<S, R> parseTabContext(@NonNull StringReader input, @Nullable S source) {
-        val nodeChain = new NodeChain<S, R>();
-        Node<S, R> current = this;
+        return parseTabContext(this, new NodeChain<>(), input, source, null);
+    }
+
+    /**
+     * 从已解析的节点继续以文本补全为目的进行文本解析
+     *
+     * @param current   已解析到的节点, 为当前节点或节点链中的最后一个节点
+     * @param nodeChain 此前已解析的节点链
+     * @param input     输入的文本读取器, 偏移量位于 {@code current} 对应文本的末尾
+     * @param source    执行源
+     * @param listener  每解析出一个节点时的回调, 可为 null
+     * @return 解析上下文，可用于文本补全
+     */
+    protected @Nullable Context<S, R> parseTabContext(
+        @NonNull Node<S, R> current,
+        @NonNull NodeChain<S, R> nodeChain,
+        @NonNull StringReader input,
+        @Nullable S source,
+        @Nullable TokenListener listener
+    ) {
         if (input.canRead()) {
             boolean skipped;
             while (true) {
@@ -477,8 +1073,13 @@ public abstract class Node<S, R> {
                     }
                 }
                 val start = input.getOffset();
-                if (current.argumentNode != null) {
-                    val parseResult = current.argumentNode.getArgument().parse(nodeChain, input, source);
+                val currentChildren = current.children;
+                val argumentNode = currentChildren.argumentNode;
+                if (argumentNode != null) {
+                    if (!argumentNode.canUse(source)) {
+                        break;
+                    }
+                    val parseResult = argumentNode.getArgument().parse(nodeChain, input, source);
                     if (!parseResult.isSuccess()) {
                         break;
                     }
@@ -486,13 +1087,17 @@ public abstract class Node<S, R> {
                         input.setOffset(start);
                         break;
                     }
-                    current = current.argumentNode;
+                    current = argumentNode;
                     nodeChain.add(new ParsedNode<>(current, parseResult));
                 } else {
-                    val next = current.matchLiteralNode(input);
+                    val next = matchLiteralNode(currentChildren, input);
                     if (next == null) {
                         break;
                     }
+                    if (currentChildren.restricted && !next.getNode().canUse(source)) {
+                        input.setOffset(start);
+                        break;
+                    }
                     if (!input.canRead() || !input.isSeparator(input.current())) {
                         input.setOffset(start);
                         break;
@@ -500,6 +1105,9 @@ public abstract class Node<S, R> {
                     current = next.getNode();
                     nodeChain.add(next);
                 }
+                if (listener != null) {
+                    listener.onToken(start, input.getOffset());
+                }
             }
         }
         return new Context<>(this, input, source, nodeChain, false);
@@ -520,6 +1128,95 @@ public abstract class Node<S, R> {
         return context.tab();
     }
 
+    /**
+     * 文本补全, 收集到 {@code limit} 条结果后立即停止
+     *
+     * @param input  输入的文本读取器
+     * @param source 执行源
+     * @param limit  最大补全数量
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input, @Nullable S source, int limit) {
+        val sink = new CompletionSink(limit);
+        val context = parseTabContext(input, source);
+        if (context != null) {
+            context.tab(sink);
+        }
+        return sink.getSuggestions();
+    }
+
+    /**
+     * 在 {@link AsyncExecutors#defaultExecutor()} 中异步文本补全
+     *
+     * @param input   输入的文本读取器
+     * @param source  执行源
+     * @param limit   最大补全数量
+     * @param timeout 超时时间, 小于等于 0 时不限制
+     * @param unit    超时时间单位
+     * @return 文本补全结果
+     * @see Node#tabAsync(StringReader, Object, int, long, TimeUnit, Executor)
+     */
+    public @NonNull CompletableFuture<List<String>> tabAsync(
+        @NonNull StringReader input,
+        @Nullable S source,
+        int limit,
+        long timeout,
+        @NonNull TimeUnit unit
+    ) {
+        return tabAsync(input, source, limit, timeout, unit, AsyncExecutors.defaultExecutor());
+    }
+
+    /**
+     * 异步文本补全
+     * <p>
+     * 文本解析在调用线程中进行, 补全规则见 {@link Context#tabAsync(ConcurrentCompletionSink, long, TimeUnit, Executor)}。<br>
+     * 需要取消同一执行源先前的请求, 或在超时后回退到缓存结果时, 应使用 {@link TabSession#tabAsync(StringReader, int, long, TimeUnit, Executor)}。
+     *
+     * @param input    输入的文本读取器
+     * @param source   执行源
+     * @param limit    最大补全数量
+     * @param timeout  超时时间, 小于等于 0 时不限制
+     * @param unit     超时时间单位
+     * @param executor 同步补全使用的线程池
+     * @return 文本补全结果
+     */
+    public @NonNull CompletableFuture<List<String>> tabAsync(
+        @NonNull StringReader input,
+        @Nullable S source,
+        int limit,
+        long timeout,
+        @NonNull TimeUnit unit,
+        @NonNull Executor executor
+    ) {
+        val sink = new ConcurrentCompletionSink(limit);
+        val context = parseTabContext(input, source);
+        if (context == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return context.tabAsync(sink, timeout, unit, executor);
+    }
+
+    /**
+     * 以当前节点为源节点, 将节点树编译为只读的扁平结构<br>
+     * 编译结果是节点树在此刻的快照, 适用于构建完成后不再变化的节点树
+     *
+     * @return 编译后的只读节点树
+     */
+    public @NonNull CompiledTree<S, R> compile() {
+        return CompiledTree.compile(this);
+    }
+
+    /**
+     * 预编译一条指令, 编译结果可以不同的执行源反复执行
+     *
+     * @param input 输入的文本读取器, 从当前偏移量开始编译
+     * @return 预编译指令
+     * @see CompiledCommand
+     */
+    public @NonNull CompiledCommand<S, R> compileCommand(@NonNull StringReader input) {
+        return new CompiledCommand<>(this, input);
+    }
+
     /**
      * 获取当前线路上最顶层的父节点（可能为 {@code this}）
      *
@@ -533,4 +1230,120 @@ public abstract class Node<S, R> {
         }
         return currentNode;
     }
+
+    /**
+     * 子节点快照, 发布后不再修改
+     */
+    protected static final class Children<S, R> {
+        private static final Children<?, ?> EMPTY = new Children<>(
+            AppendOnlyMap.empty(),
+            AppendOnlyMap.empty(),
+            AppendOnlyMap.empty(),
+            null,
+            null,
+            false
+        );
+
+        /**
+         * 所有子节点
+         */
+        private final @NonNull AppendOnlyMap<String, Node<S, R>> childNodes;
+        /**
+         * 所有 LiteralNode 类型子节点, 键为小写识别名
+         */
+        private final @NonNull AppendOnlyMap<String, LiteralNode<S, ?, R>> literalNodes;
+        /**
+         * 所有 LiteralNode 类型子节点, 键与值相同, 用于按插入顺序去重
+         */
+        private final @NonNull AppendOnlyMap<LiteralNode<S, ?, R>, LiteralNode<S, ?, R>> literalNodeMap;
+        /**
+         * 所有 LiteralNode 类型子节点
+         */
+        private final @NonNull Set<LiteralNode<S, ?, R>> literalNodesSet;
+        /**
+         * LiteralNode 识别名前缀树，值为预先生成的解析后节点<br>
+         * 为 null 时表示尚未构建, 此时退回逐段读取并查询 {@link Children#literalNodes}
+         */
+        private final @Nullable LiteralTrie<ParsedNode<S, ?, R>> literalTrie;
+        /**
+         * ArgumentNode 类型子节点
+         */
+        private final @Nullable ArgumentNode<S, ?, R> argumentNode;
+        /**
+         * 是否存在设置了访问条件或所需能力的子节点
+         */
+        private final boolean restricted;
+        /**
+         * LiteralNode 补全显示名前缀索引<br>
+         * 为 null 时表示尚未构建, 将在下一次补全时构建
+         */
+        private volatile @Nullable PrefixIndex tabIndex = null;
+
+        /**
+         * @param restricted 是否存在受限子节点, 增量添加时由调用方根据上一个快照与新子节点得出, 避免重新扫描全部子节点
+         */
+        private Children(
+            @NonNull AppendOnlyMap<String, Node<S, R>> childNodes,
+            @NonNull AppendOnlyMap<String, LiteralNode<S, ?, R>> literalNodes,
+            @NonNull AppendOnlyMap<LiteralNode<S, ?, R>, LiteralNode<S, ?, R>> literalNodeMap,
+            @Nullable LiteralTrie<ParsedNode<S, ?, R>> literalTrie,
+            @Nullable ArgumentNode<S, ?, R> argumentNode,
+            boolean restricted
+        ) {
+            this.childNodes = childNodes;
+            this.literalNodes = literalNodes;
+            this.literalNodeMap = literalNodeMap;
+            this.literalNodesSet = literalNodeMap.keySet();
+            this.literalTrie = literalTrie;
+            this.argumentNode = argumentNode;
+            this.restricted = restricted;
+        }
+
+        /**
+         * 扫描全部子节点, 判断是否存在受限子节点
+         */
+        private static boolean isRestricted(@NonNull Map<String, ? extends Node<?, ?>> childNodes) {
+            for (val child : childNodes.values()) {
+                if (child.isRestricted()) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 文本补全解析过程中的节点回调
+     */
+    @FunctionalInterface
+    protected interface TokenListener {
+        /**
+         * 解析出一个节点
+         *
+         * @param start 节点对应文本的起始偏移量
+         * @param end   节点对应文本的结束偏移量
+         */
+        void onToken(int start, int end);
+    }
+
+    /**
+     * 子树字符搜索器构建任务, 每个节点只修改自身的字符搜索器, 因此各子树可并行构建
+     */
+    @AllArgsConstructor
+    private static final class BuildLiteralSearcherTask<S, R> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final @NonNull Node<S, R> node;
+
+        @Override
+        protected void compute() {
+            val tasks = new ArrayList<BuildLiteralSearcherTask<S, R>>();
+            for (val child : node.children.childNodes.values()) {
+                if (child.children.childNodes.isEmpty()) continue;
+                tasks.add(new BuildLiteralSearcherTask<>(child));
+            }
+            if (!node.children.literalNodes.isEmpty()) {
+                node.buildLiteralSearcher();
+            }
+            invokeAll(tasks);
+        }
+    }
 }
@@ -0,0 +1,380 @@
+package pers.neige.colonel.node;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.AsyncExecutors;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.context.ConcurrentCompletionSink;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 补全会话
+ * <p>
+ * 每个执行源持有一个会话, 会话记录上一次补全时解析出的节点链及每个节点对应文本的位置。<br>
+ * 新的补全请求与上一次输入存在公共前缀时, 从公共前缀内最后一个完整节点的末尾继续解析, 前缀内的参数不会被重新解析。<br>
+ * 前缀内的字面量会被重新匹配一次（前缀树匹配, 开销极低）, 以保证存在包含分隔符的识别名时最长匹配的结果依然正确。
+ * <p>
+ * 复用参数解析结果要求参数在解析时只读取属于自身的文本, 不向后预读。<br>
+ * 以逻辑执行为目的进行解析时, 只复用与执行源无关（{@link pers.neige.colonel.arguments.Argument#isSourceIndependent()}）的前缀, 保证执行时参数始终是最新的。
+ * <p>
+ * 异步补全时, 同一会话的新请求会取消尚未完成的上一次请求;<br>
+ * 请求超时且没有收集到任何补全文本时, 回退到上一次完整补全的缓存结果。
+ * <p>
+ * 节点树发生修改或读取器配置不同时, 会话将自动重置。会话的所有方法均已同步。
+ */
+@SuppressWarnings("unused")
+public class TabSession<S, R> {
+    private static final ParsedNode<?, ?, ?>[] EMPTY_NODES = new ParsedNode<?, ?, ?>[0];
+    private static final int[] EMPTY_OFFSETS = new int[0];
+
+    /**
+     * 源节点
+     */
+    @Getter
+    private final @NonNull Node<S, R> root;
+    /**
+     * 执行源
+     */
+    @Getter
+    private final @Nullable S source;
+    /**
+     * 上一次补全的输入文本, 为 null 时表示没有记录
+     */
+    private @Nullable String lastInput = null;
+    /**
+     * 上一次补全时读取器的转义符
+     */
+    private char escape;
+    /**
+     * 上一次补全时读取器的分隔符
+     */
+    private @Nullable Set<Character> separators = null;
+    /**
+     * 上一次补全时源节点的修改次数
+     */
+    private int modCount;
+    /**
+     * 上一次补全解析出的节点
+     */
+    @SuppressWarnings("unchecked")
+    private @NonNull ParsedNode<S, ?, R>[] nodes = (ParsedNode<S, ?, R>[]) EMPTY_NODES;
+    /**
+     * 每个节点对应文本的起始偏移量
+     */
+    private int @NonNull [] starts = EMPTY_OFFSETS;
+    /**
+     * 每个节点对应文本的结束偏移量
+     */
+    private int @NonNull [] ends = EMPTY_OFFSETS;
+    /**
+     * 有效记录数量
+     */
+    private int size = 0;
+    /**
+     * 通过复用前缀跳过的节点总数
+     */
+    @Getter
+    private long reusedCount = 0;
+    /**
+     * 尚未完成的异步补全请求
+     */
+    private @Nullable CompletableFuture<List<String>> pending = null;
+    /**
+     * 缓存的补全结果对应的文本前缀（待补全文本之前的部分）, 为 null 时表示没有缓存
+     */
+    private @Nullable String cachedPrefix = null;
+    /**
+     * 缓存补全结果时源节点的修改次数
+     */
+    private int cachedModCount;
+    /**
+     * 上一次完整的异步补全结果
+     */
+    private @NonNull List<String> cachedSuggestions = Collections.emptyList();
+
+    /**
+     * @param root   源节点
+     * @param source 执行源
+     */
+    public TabSession(@NonNull Node<S, R> root, @Nullable S source) {
+        this.root = root;
+        this.source = source;
+    }
+
+    /**
+     * 以文本补全为目的, 进行文本解析
+     *
+     * @param input 输入的文本读取器
+     * @return 解析上下文，可用于文本补全
+     * @see Node#parseTabContext(StringReader, Object)
+     */
+    public synchronized @Nullable Context<S, R> parseTabContext(@NonNull StringReader input) {
+        if (input.getOffset() != 0) {
+            return root.parseTabContext(input, source);
+        }
+        val nodeChain = new NodeChain<S, R>();
+        val current = resume(nodeChain, input, false);
+        size = nodeChain.size();
+        val context = root.parseTabContext(current, nodeChain, input, source, this::record);
+        for (int index = 0; index < size; index++) {
+            nodes[index] = nodeChain.get(index);
+        }
+        lastInput = input.getString();
+        escape = input.getEscape();
+        separators = input.getSeparators();
+        modCount = root.getModCount();
+        return context;
+    }
+
+    /**
+     * 文本补全
+     *
+     * @param input 输入的文本读取器
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input) {
+        val context = parseTabContext(input);
+        if (context == null) {
+            return Collections.emptyList();
+        }
+        return context.tab();
+    }
+
+    /**
+     * 文本补全, 收集到 {@code limit} 条结果后立即停止
+     *
+     * @param input 输入的文本读取器
+     * @param limit 最大补全数量
+     * @return 文本补全结果
+     */
+    public @NonNull List<String> tab(@NonNull StringReader input, int limit) {
+        val sink = new CompletionSink(limit);
+        val context = parseTabContext(input);
+        if (context != null) {
+            context.tab(sink);
+        }
+        return sink.getSuggestions();
+    }
+
+    /**
+     * 在 {@link AsyncExecutors#defaultExecutor()} 中异步文本补全
+     *
+     * @param input   输入的文本读取器
+     * @param limit   最大补全数量
+     * @param timeout 超时时间, 小于等于 0 时不限制
+     * @param unit    超时时间单位
+     * @return 文本补全结果
+     * @see TabSession#tabAsync(StringReader, int, long, TimeUnit, Executor)
+     */
+    public @NonNull CompletableFuture<List<String>> tabAsync(@NonNull StringReader input, int limit, long timeout, @NonNull TimeUnit unit) {
+        return tabAsync(input, limit, timeout, unit, AsyncExecutors.defaultExecutor());
+    }
+
+    /**
+     * 异步文本补全
+     * <p>
+     * 文本解析在调用线程中进行, 上一次尚未完成的请求会被取消。<br>
+     * 超时后返回已收集的部分补全文本; 没有收集到任何文本, 且待补全文本之前的部分与上一次完整补全相同时,
+     * 返回缓存结果中以待补全文本开头（忽略大小写）的部分。
+     *
+     * @param input    输入的文本读取器
+     * @param limit    最大补全数量
+     * @param timeout  超时时间, 小于等于 0 时不限制
+     * @param unit     超时时间单位
+     * @param executor 同步补全使用的线程池
+     * @return 文本补全结果
+     * @see Context#tabAsync(ConcurrentCompletionSink, long, TimeUnit, Executor)
+     */
+    public synchronized @NonNull CompletableFuture<List<String>> tabAsync(
+        @NonNull StringReader input,
+        int limit,
+        long timeout,
+        @NonNull TimeUnit unit,
+        @NonNull Executor executor
+    ) {
+        val previous = pending;
+        if (previous != null) {
+            pending = null;
+            previous.cancel(false);
+        }
+        val sink = new ConcurrentCompletionSink(limit);
+        val context = parseTabContext(input);
+        if (context == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        val remaining = context.getInput().peekRemaining();
+        val string = context.getInput().getString();
+        val prefix = string.substring(0, string.length() - remaining.length());
+        val modCount = root.getModCount();
+        val future = context.tabAsync(sink, timeout, unit, executor);
+        pending = future;
+        val result = future.thenApply(suggestions -> {
+            if (sink.isCompleted()) {
+                cache(prefix, modCount, suggestions);
+                return suggestions;
+            }
+            if (!suggestions.isEmpty()) return suggestions;
+            return cached(prefix, modCount, remaining, limit);
+        });
+        result.whenComplete((suggestions, error) -> {
+            if (result.isCancelled()) future.cancel(false);
+        });
+        return result;
+    }
+
+    /**
+     * 以逻辑执行为目的, 进行文本解析<br>
+     * 复用上一次补全解析出的、与执行源无关的前缀
+     *
+     * @param input 输入的文本读取器
+     * @return 解析上下文，可用于逻辑执行
+     * @see Node#parseExecuteContext(StringReader, Object)
+     */
+    public synchronized @NonNull Context<S, R> parseExecuteContext(@NonNull StringReader input) {
+        if (input.getOffset() != 0) {
+            return root.parseExecuteContext(input, source);
+        }
+        val nodeChain = new NodeChain<S, R>();
+        val current = resume(nodeChain, input, true);
+        return root.parseExecuteContext(current, nodeChain, input, source);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param input 输入的文本读取器
+     * @return 执行结果
+     */
+    public @Nullable R execute(@NonNull StringReader input) {
+        return execute(input, null);
+    }
+
+    /**
+     * 逻辑执行
+     *
+     * @param input       输入的文本读取器
+     * @param defExecutor 默认执行器
+     * @return 执行结果
+     */
+    public @Nullable R execute(@NonNull StringReader input, @Nullable Function<Context<S, R>, R> defExecutor) {
+        return parseExecuteContext(input).execute(defExecutor);
+    }
+
+    /**
+     * 清空会话记录
+     */
+    public synchronized void reset() {
+        lastInput = null;
+        separators = null;
+        size = 0;
+        cachedPrefix = null;
+        cachedSuggestions = Collections.emptyList();
+    }
+
+    private synchronized void cache(@NonNull String prefix, int modCount, @NonNull List<String> suggestions) {
+        cachedPrefix = prefix;
+        cachedModCount = modCount;
+        cachedSuggestions = suggestions;
+    }
+
+    /**
+     * @return 缓存结果中以待补全文本开头的部分, 缓存不可用时返回空列表
+     */
+    private synchronized @NonNull List<String> cached(@NonNull String prefix, int modCount, @NonNull String remaining, int limit) {
+        if (!prefix.equals(cachedPrefix) || modCount != cachedModCount) {
+            return Collections.emptyList();
+        }
+        val sink = new CompletionSink(limit);
+        val lowerCasePrefix = remaining.toLowerCase();
+        for (val suggestion : cachedSuggestions) {
+            if (!sink.addIfMatches(suggestion, lowerCasePrefix)) break;
+        }
+        return sink.getSuggestions();
+    }
+
+    /**
+     * 将上一次补全解析出的、仍然有效的前缀填入节点链, 并将读取器偏移量移动到前缀末尾<br>
+     * 执行源不再满足某个节点的访问条件时, 从该节点起重新解析
+     *
+     * @param nodeChain         待填充的节点链
+     * @param input             输入的文本读取器
+     * @param sourceIndependent 是否只复用与执行源无关的前缀
+     * @return 前缀的最后一个节点
+     */
+    private @NonNull Node<S, R> resume(@NonNull NodeChain<S, R> nodeChain, @NonNull StringReader input, boolean sourceIndependent) {
+        Node<S, R> current = root;
+        val last = lastInput;
+        if (last == null
+            || modCount != root.getModCount()
+            || escape != input.getEscape()
+            || separators == null
+            || !separators.equals(input.getSeparators())
+        ) {
+            size = 0;
+            return current;
+        }
+        val string = input.getString();
+        val common = commonPrefixLength(last, string);
+        var count = 0;
+        while (count < size && ends[count] < common) {
+            var parsedNode = nodes[count];
+            val node = parsedNode.getNode();
+            // 访问条件可能在两次解析之间发生变化, 每次复用都重新检查
+            if (!node.canUse(source)) break;
+            if (node instanceof LiteralNode) {
+                input.setOffset(starts[count]);
+                val matched = current.matchLiteralNode(input);
+                if (matched == null || matched.getNode() != node || input.getOffset() != ends[count]) break;
+                parsedNode = matched;
+            } else if (sourceIndependent && node instanceof ArgumentNode && !((ArgumentNode<S, ?, R>) node).getArgument().isSourceIndependent()) {
+                break;
+            }
+            nodeChain.add(parsedNode);
+            current = node;
+            count++;
+        }
+        input.setOffset(count == 0 ? 0 : ends[count - 1]);
+        reusedCount += count;
+        return current;
+    }
+
+    /**
+     * 记录补全解析出的节点
+     */
+    private void record(int start, int end) {
+        if (size == nodes.length) {
+            val capacity = Math.max(8, size * 2);
+            nodes = Arrays.copyOf(nodes, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    private static int commonPrefixLength(@NonNull String a, @NonNull String b) {
+        val max = Math.min(a.length(), b.length());
+        var index = 0;
+        while (index < max && a.charAt(index) == b.charAt(index)) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -1,18 +1,25 @@
 package pers.neige.colonel.node.impl;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Nullable;
 import pers.neige.colonel.arguments.Argument;
+import pers.neige.colonel.capability.CapabilityRegistry;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.context.ConcurrentCompletionSink;
 import pers.neige.colonel.context.Context;
+import pers.neige.colonel.node.ArgumentKey;
 import pers.neige.colonel.node.Node;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * 参数节点
@@ -30,6 +37,22 @@ public class ArgumentNode<S, A, R> extends Node<S, R> {
      * 自定义补全器, 可用于覆盖补全逻辑
      */
     protected @Nullable BiFunction<Context<S, R>, String, List<String>> taber = null;
+    /**
+     * 自定义流式补全器, 可用于覆盖补全逻辑, 优先级高于 {@link ArgumentNode#taber}<br>
+     * 收集器已满时应立即停止生产补全文本
+     */
+    protected @Nullable SinkTaber<S, R> sinkTaber = null;
+    /**
+     * 自定义异步补全器, 仅在异步补全时使用, 优先级高于 {@link ArgumentNode#sinkTaber}<br>
+     * 补全器应立即返回, 由返回的 {@link CompletionStage} 在生产结束时完成
+     */
+    protected @Nullable AsyncTaber<S, R> asyncTaber = null;
+
+    /**
+     * 参数键
+     */
+    @Getter(AccessLevel.NONE)
+    protected final @NonNull ArgumentKey<A> key;
 
     private ArgumentNode(
         @NonNull String id,
@@ -37,6 +60,7 @@ public class ArgumentNode<S, A, R> extends Node<S, R> {
     ) {
         super(id);
         this.argument = argument;
+        this.key = new ArgumentKey<>(this);
     }
 
     public static <S, A, R> ArgumentNode<S, A, R> argument(
@@ -46,6 +70,15 @@ public class ArgumentNode<S, A, R> extends Node<S, R> {
         return new ArgumentNode<>(id, argument);
     }
 
+    /**
+     * 获取参数键, 可通过 {@link Context#getArgument(ArgumentKey)} 以类型安全的方式快速读取参数
+     *
+     * @return 参数键
+     */
+    public @NonNull ArgumentKey<A> key() {
+        return key;
+    }
+
     /**
      * 设置执行器
      */
@@ -54,6 +87,38 @@ public class ArgumentNode<S, A, R> extends Node<S, R> {
         return this;
     }
 
+    /**
+     * 设置异步执行器
+     */
+    public ArgumentNode<S, A, R> setAsyncExecutor(@Nullable Function<Context<S, R>, CompletionStage<R>> asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
+    /**
+     * 设置访问条件
+     */
+    public ArgumentNode<S, A, R> setRequirement(@Nullable Predicate<S> requirement) {
+        super.setRequirement(requirement);
+        return this;
+    }
+
+    /**
+     * 设置所需能力的位掩码
+     */
+    public ArgumentNode<S, A, R> setRequiredCapabilities(long requiredCapabilities) {
+        super.setRequiredCapabilities(requiredCapabilities);
+        return this;
+    }
+
+    /**
+     * 声明所需能力
+     */
+    public ArgumentNode<S, A, R> requireCapabilities(@NonNull CapabilityRegistry registry, @NonNull String... names) {
+        super.requireCapabilities(registry, names);
+        return this;
+    }
+
     /**
      * 设置无返回值的执行器
      */
@@ -68,4 +133,35 @@ public class ArgumentNode<S, A, R> extends Node<S, R> {
         }
         return this;
     }
+
+    /**
+     * 流式补全器
+     */
+    @FunctionalInterface
+    public interface SinkTaber<S, R> {
+        /**
+         * 根据剩余文本进行补全
+         *
+         * @param context   执行上下文
+         * @param remaining 剩余文本
+         * @param sink      补全结果收集器
+         */
+        void tab(@NonNull Context<S, R> context, @NonNull String remaining, @NonNull CompletionSink sink);
+    }
+
+    /**
+     * 异步补全器
+     */
+    @FunctionalInterface
+    public interface AsyncTaber<S, R> {
+        /**
+         * 根据剩余文本进行补全, 补全文本可在任意线程中陆续写入收集器
+         *
+         * @param context   执行上下文
+         * @param remaining 剩余文本
+         * @param sink      线程安全的补全结果收集器, 请求超时或被取消后将被关闭
+         * @return 生产结束时完成的任务, 请求超时或被取消时会尝试取消该任务
+         */
+        @NonNull CompletionStage<?> tab(@NonNull Context<S, R> context, @NonNull String remaining, @NonNull ConcurrentCompletionSink sink);
+    }
 }
@@ -0,0 +1,181 @@
+package pers.neige.colonel.reader;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 预编译的字符分类表
+ * <p>
+ * 将分隔符与转义符编译为 ASCII 分类数组，ASCII 字符的分类只需一次数组读取。<br>
+ * 存在非 ASCII 分隔符时，额外构建覆盖整个 BMP 的位图作为后备。<br>
+ * 分类表不可变，由 {@link StringReader#copy()} 与 {@link StringReader#newReaderWithSameConfig(String)} 创建的读取器共享同一实例。
+ */
+@SuppressWarnings("unused")
+public final class CharClassTable {
+    /**
+     * 普通字符
+     */
+    public static final byte ORDINARY = 0;
+    /**
+     * 分隔符
+     */
+    public static final byte SEPARATOR = 1;
+    /**
+     * 转义符(转义符同时为分隔符时按转义符处理)
+     */
+    public static final byte ESCAPE = 2;
+
+    /**
+     * 默认分隔符与默认转义符对应的分类表
+     */
+    public static final CharClassTable DEFAULT = new CharClassTable(new char[]{SingleSeparatorStringReader.DEFAULT_SEPARATOR}, StringReader.DEFAULT_ESCAPE);
+
+    /**
+     * 最近一次编译的多分隔符分类表, 同一分隔符集合重复创建读取器时直接复用
+     */
+    private static volatile @Nullable CharClassTable lastCompiled;
+
+    /**
+     * ASCII 字符分类
+     */
+    private final byte @NonNull [] ascii = new byte[128];
+    /**
+     * 非 ASCII 分隔符位图, 不存在非 ASCII 分隔符则为 null
+     */
+    private final long @Nullable [] bmp;
+    /**
+     * 去重后的分隔符
+     */
+    private final char @NonNull [] separatorChars;
+    /**
+     * 转义符
+     */
+    @Getter
+    private final char escape;
+    /**
+     * 分隔符集合
+     */
+    @Getter
+    private final @NonNull Set<Character> separators;
+
+    private CharClassTable(char @NonNull [] separatorChars, char escape) {
+        this.separatorChars = separatorChars;
+        this.escape = escape;
+        long[] bmp = null;
+        val separators = new LinkedHashSet<Character>();
+        for (val separator : separatorChars) {
+            separators.add(separator);
+            if (separator < 128) {
+                ascii[separator] = SEPARATOR;
+            } else {
+                if (bmp == null) bmp = new long[1 << 10];
+                bmp[separator >>> 6] |= 1L << separator;
+            }
+        }
+        if (escape < 128) {
+            ascii[escape] = ESCAPE;
+        }
+        this.bmp = bmp;
+        this.separators = separators.size() == 1 ? Collections.singleton(separatorChars[0]) : Collections.unmodifiableSet(separators);
+    }
+
+    /**
+     * 获取单分隔符的分类表, 默认配置直接返回 {@link CharClassTable#DEFAULT}
+     *
+     * @param separator 分隔符
+     * @param escape    转义符
+     * @return 分类表
+     */
+    public static @NonNull CharClassTable of(char separator, char escape) {
+        if (separator == DEFAULT.separatorChars[0] && escape == DEFAULT.escape) return DEFAULT;
+        return new CharClassTable(new char[]{separator}, escape);
+    }
+
+    /**
+     * 获取多分隔符的分类表, 与最近一次编译的配置一致时直接复用
+     *
+     * @param separators 分隔符
+     * @param escape     转义符
+     * @return 分类表
+     */
+    public static @NonNull CharClassTable of(@NonNull Set<Character> separators, char escape) {
+        if (separators.isEmpty()) {
+            throw new IllegalArgumentException("separators cannot be empty");
+        }
+        val last = lastCompiled;
+        if (last != null && last.matches(separators, escape)) return last;
+        val chars = new char[separators.size()];
+        var index = 0;
+        for (val separator : separators) {
+            chars[index++] = separator;
+        }
+        val result = new CharClassTable(chars, escape);
+        lastCompiled = result;
+        return result;
+    }
+
+    private boolean matches(@NonNull Set<Character> separators, char escape) {
+        if (this.escape != escape || this.separators.size() != separators.size()) return false;
+        for (val separator : separatorChars) {
+            if (!separators.contains(separator)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 对字符进行分类
+     *
+     * @param c 待分类字符
+     * @return {@link CharClassTable#ORDINARY}, {@link CharClassTable#SEPARATOR} 或 {@link CharClassTable#ESCAPE}
+     */
+    public byte classify(char c) {
+        if (c < 128) return ascii[c];
+        if (c == escape) return ESCAPE;
+        val bmp = this.bmp;
+        return bmp != null && (bmp[c >>> 6] & (1L << c)) != 0 ? SEPARATOR : ORDINARY;
+    }
+
+    /**
+     * 判断一个字符是否为分隔符
+     *
+     * @param c 待判断字符
+     * @return 待判断字符是否为分隔符
+     */
+    public boolean isSeparator(char c) {
+        if (c < 128) return ascii[c] == SEPARATOR || (c == escape && isSeparatorChar(c));
+        val bmp = this.bmp;
+        return bmp != null && (bmp[c >>> 6] & (1L << c)) != 0;
+    }
+
+    /**
+     * 判断一组字符是否包含分隔符
+     *
+     * @param chars 待判断字符组
+     * @return 待判断字符组是否包含分隔符
+     */
+    public boolean containsSeparator(@NonNull Collection<Character> chars) {
+        for (val separator : separatorChars) {
+            if (chars.contains(separator)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return 任意一个分隔符
+     */
+    public char getSeparator() {
+        return separatorChars[0];
+    }
+
+    private boolean isSeparatorChar(char c) {
+        for (val separator : separatorChars) {
+            if (separator == c) return true;
+        }
+        return false;
+    }
+}
@@ -3,9 +3,6 @@ package pers.neige.colonel.reader;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -25,11 +22,8 @@ public class MultiSeparatorStringReader extends StringReader {
      * @param string        待读取字符串
      * @param separators    分隔符
      * @param escape        转义符
-     * @param defensiveCopy 如果为 {@code true}，将对传入的 {@code separators} 集合进行防御性复制，<br>
-     *                      以防止外部修改影响读取器实例，这是更安全的选择。<br>
-     *                      如果为 {@code false}，将直接使用传入的集合引用以提高性能。<br>
-     *                      <b>警告:</b> 当设为 {@code false} 时，调用者必须保证在读取器的生命周期内，<br>
-     *                      不会修改传入的 {@code separators} 集合。
+     * @param defensiveCopy 保留以兼容旧版本，分隔符总会被编译进不可变的 {@link CharClassTable}，<br>
+     *                      此后对 {@code separators} 集合的修改不会影响读取器实例。
      */
     public MultiSeparatorStringReader(@NonNull String string, @NonNull Set<Character> separators, char escape, boolean defensiveCopy) {
         this(string, separators, escape, 0, defensiveCopy);
@@ -40,73 +34,52 @@ public class MultiSeparatorStringReader extends StringReader {
      * @param separators    分隔符
      * @param escape        转义符
      * @param offset        偏移量
-     * @param defensiveCopy 如果为 {@code true}，将对传入的 {@code separators} 集合进行防御性复制，<br>
-     *                      以防止外部修改影响读取器实例，这是更安全的选择。<br>
-     *                      如果为 {@code false}，将直接使用传入的集合引用以提高性能。<br>
-     *                      <b>警告:</b> 当设为 {@code false} 时，调用者必须保证在读取器的生命周期内，<br>
-     *                      不会修改传入的 {@code separators} 集合。
+     * @param defensiveCopy 保留以兼容旧版本，分隔符总会被编译进不可变的 {@link CharClassTable}，<br>
+     *                      此后对 {@code separators} 集合的修改不会影响读取器实例。
      */
     public MultiSeparatorStringReader(@NonNull String string, @NonNull Set<Character> separators, char escape, int offset, boolean defensiveCopy) {
-        super(string, escape, offset);
-        if (separators.isEmpty()) {
-            throw new IllegalArgumentException("separators cannot be empty");
-        }
-        if (defensiveCopy) {
-            this.separators = separators;
-        } else {
-            this.separators = Collections.unmodifiableSet(new HashSet<>(separators));
-        }
+        this(string, CharClassTable.of(separators, escape), offset);
+    }
+
+    /**
+     * @param string      待读取字符串
+     * @param charClasses 字符分类表
+     * @param offset      偏移量
+     */
+    private MultiSeparatorStringReader(@NonNull String string, @NonNull CharClassTable charClasses, int offset) {
+        super(string, charClasses, offset);
+        this.separators = charClasses.getSeparators();
     }
 
     /**
      * 安全地设置分隔符。
-     * 内部会创建一个不可变的副本，防止外部修改。
+     * 内部会编译一份新的字符分类表，其中保存了分隔符的不可变副本。
      *
      * @param separators 分隔符集合
      */
     public void setSeparators(@NonNull Set<Character> separators) {
-        unsafeSetSeparators(Collections.unmodifiableSet(new HashSet<>(separators)));
+        unsafeSetSeparators(separators);
     }
 
     /**
-     * 不安全地设置分隔符，直接使用传入的集合引用以提高性能。
+     * 设置分隔符。
      * <p>
-     * <b>警告:</b> 调用者必须保证在设置之后不会再修改此 {@code separators} 集合。
+     * 分隔符会被编译进字符分类表, 此后对 {@code separators} 集合的修改不会影响读取器。
      *
-     * @param separators 要直接使用的分隔符集合
+     * @param separators 分隔符集合
      */
     public void unsafeSetSeparators(@NonNull Set<Character> separators) {
-        if (separators.isEmpty()) {
-            throw new IllegalArgumentException("separators cannot be empty");
-        }
-        this.separators = separators;
-    }
-
-    @Override
-    public boolean isSeparator(char c) {
-        return separators.contains(c);
-    }
-
-    @Override
-    public boolean containsSeparator(@NonNull Collection<Character> chars) {
-        for (Character separator : separators) {
-            if (chars.contains(separator)) return true;
-        }
-        return false;
+        this.charClasses = CharClassTable.of(separators, escape);
+        this.separators = charClasses.getSeparators();
     }
 
     @Override
     public @NonNull StringReader newReaderWithSameConfig(@NonNull String string) {
-        return new MultiSeparatorStringReader(string, separators, escape, false);
+        return new MultiSeparatorStringReader(string, charClasses, 0);
     }
 
     @Override
     public @NonNull MultiSeparatorStringReader copy() {
-        return new MultiSeparatorStringReader(string, separators, escape, offset, false);
-    }
-
-    @Override
-    public char getSeparator() {
-        return separators.iterator().next();
+        return new MultiSeparatorStringReader(string, charClasses, offset);
     }
 }
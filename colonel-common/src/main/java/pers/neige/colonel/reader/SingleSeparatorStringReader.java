@@ -2,17 +2,11 @@ package pers.neige.colonel.reader;
 
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.Setter;
-
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Set;
 
 /**
  * 字符串解析器
  */
 @Getter
-@Setter
 @SuppressWarnings("unused")
 public class SingleSeparatorStringReader extends StringReader {
     /**
@@ -53,32 +47,36 @@ public class SingleSeparatorStringReader extends StringReader {
      * @param offset    偏移量
      */
     public SingleSeparatorStringReader(@NonNull String string, char separator, char escape, int offset) {
-        super(string, escape, offset);
-        this.separator = separator;
+        this(string, CharClassTable.of(separator, escape), offset);
     }
 
-    @Override
-    public boolean isSeparator(char c) {
-        return c == separator;
+    /**
+     * @param string      待读取字符串
+     * @param charClasses 字符分类表
+     * @param offset      偏移量
+     */
+    private SingleSeparatorStringReader(@NonNull String string, @NonNull CharClassTable charClasses, int offset) {
+        super(string, charClasses, offset);
+        this.separator = charClasses.getSeparator();
     }
 
-    @Override
-    public boolean containsSeparator(@NonNull Collection<Character> chars) {
-        return chars.contains(separator);
+    /**
+     * 设置分隔符, 同时重新获取字符分类表
+     *
+     * @param separator 分隔符
+     */
+    public void setSeparator(char separator) {
+        this.separator = separator;
+        this.charClasses = CharClassTable.of(separator, escape);
     }
 
     @Override
     public @NonNull StringReader newReaderWithSameConfig(@NonNull String string) {
-        return new SingleSeparatorStringReader(string, separator, escape, 0);
+        return new SingleSeparatorStringReader(string, charClasses, 0);
     }
 
     @Override
     public @NonNull SingleSeparatorStringReader copy() {
-        return new SingleSeparatorStringReader(string, separator, escape, offset);
-    }
-
-    @Override
-    public @NonNull Set<Character> getSeparators() {
-        return Collections.singleton(separator);
+        return new SingleSeparatorStringReader(string, charClasses, offset);
     }
 }
@@ -43,6 +43,17 @@ public abstract class StringReader {
      * 当前偏移量
      */
     protected int offset;
+    /**
+     * 字符分类表
+     */
+    @Setter(AccessLevel.NONE)
+    protected @NonNull CharClassTable charClasses;
+    /**
+     * 由 {@link StringReader#readToken()} 复用的文本片段视图
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private @Nullable Token token;
 
     /**
      * 分隔符取默认值 {@link StringReader#DEFAULT_ESCAPE}
@@ -69,9 +80,19 @@ public abstract class StringReader {
      * @param offset 偏移量
      */
     protected StringReader(@NonNull String string, char escape, int offset) {
+        this(string, CharClassTable.of(DEFAULT_SEPARATOR, escape), offset);
+    }
+
+    /**
+     * @param string       待读取字符串
+     * @param charClasses  字符分类表
+     * @param offset       偏移量
+     */
+    protected StringReader(@NonNull String string, @NonNull CharClassTable charClasses, int offset) {
         this.string = string;
         this.offset = offset;
-        this.escape = escape;
+        this.escape = charClasses.getEscape();
+        this.charClasses = charClasses;
     }
 
     /**
@@ -111,11 +132,7 @@ public abstract class StringReader {
      * @param string        待读取字符串
      * @param separators    分隔符
      * @param escape        转义符
-     * @param defensiveCopy 如果为 {@code true}，将对传入的 {@code separators} 集合进行防御性复制，<br>
-     *                      以防止外部修改影响读取器实例，这是更安全的选择。<br>
-     *                      如果为 {@code false}，将直接使用传入的集合引用以提高性能。<br>
-     *                      <b>警告:</b> 当设为 {@code false} 时，调用者必须保证在读取器的生命周期内，<br>
-     *                      不会修改传入的 {@code separators} 集合。
+     * @param defensiveCopy 保留以兼容旧版本，分隔符总会被编译进不可变的 {@link CharClassTable}
      */
     public static @NonNull StringReader of(@NonNull String string, @NonNull Set<Character> separators, char escape, boolean defensiveCopy) {
         return new MultiSeparatorStringReader(string, separators, escape, 0, defensiveCopy);
@@ -126,23 +143,61 @@ public abstract class StringReader {
      * @param separators    分隔符
      * @param escape        转义符
      * @param offset        偏移量
-     * @param defensiveCopy 如果为 {@code true}，将对传入的 {@code separators} 集合进行防御性复制，<br>
-     *                      以防止外部修改影响读取器实例，这是更安全的选择。<br>
-     *                      如果为 {@code false}，将直接使用传入的集合引用以提高性能。<br>
-     *                      <b>警告:</b> 当设为 {@code false} 时，调用者必须保证在读取器的生命周期内，<br>
-     *                      不会修改传入的 {@code separators} 集合。
+     * @param defensiveCopy 保留以兼容旧版本，分隔符总会被编译进不可变的 {@link CharClassTable}
      */
     public static @NonNull StringReader of(@NonNull String string, @NonNull Set<Character> separators, char escape, int offset, boolean defensiveCopy) {
         return new MultiSeparatorStringReader(string, separators, escape, offset, defensiveCopy);
     }
 
+    /**
+     * 读取已按分隔符拆分的参数数组, 例如 Bukkit 指令执行器收到的 {@code args}<br>
+     * 参数以分隔符连接, 效果等同于 {@code StringReader.of(String.join(separator, args), separator, escape)},
+     * 但只有一个参数时直接读取该参数, 否则按精确长度一次性拷贝, 不经过 {@link StringBuilder} 扩容
+     *
+     * @param args      参数数组, 参数中不应包含分隔符
+     * @param separator 分隔符
+     * @param escape    转义符
+     * @param trim      是否忽略首尾的空参数, 效果等同于对连接结果调用 {@link String#trim()}（分隔符为空格时）
+     */
+    public static @NonNull StringReader ofArguments(String @NonNull [] args, char separator, char escape, boolean trim) {
+        var from = 0;
+        var to = args.length;
+        if (trim) {
+            while (from < to && args[from].isEmpty()) from++;
+            while (to > from && args[to - 1].isEmpty()) to--;
+        }
+        String string;
+        if (to - from == 0) {
+            string = "";
+        } else if (to - from == 1) {
+            string = args[from];
+        } else {
+            var length = to - from - 1;
+            for (int index = from; index < to; index++) {
+                length += args[index].length();
+            }
+            val chars = new char[length];
+            var position = 0;
+            for (int index = from; index < to; index++) {
+                if (index > from) chars[position++] = separator;
+                val arg = args[index];
+                arg.getChars(0, arg.length(), chars, position);
+                position += arg.length();
+            }
+            string = new String(chars);
+        }
+        return new SingleSeparatorStringReader(string, separator, escape, 0);
+    }
+
     /**
      * 判断一个字符是否为分隔符
      *
      * @param c 待判断字符
      * @return 待判断字符是否为分隔符
      */
-    public abstract boolean isSeparator(char c);
+    public boolean isSeparator(char c) {
+        return charClasses.isSeparator(c);
+    }
 
     /**
      * 判断一组字符是否包含分隔符
@@ -150,7 +205,9 @@ public abstract class StringReader {
      * @param chars 待判断字符组
      * @return 待判断字符是否为分隔符
      */
-    public abstract boolean containsSeparator(@NonNull Collection<Character> chars);
+    public boolean containsSeparator(@NonNull Collection<Character> chars) {
+        return charClasses.containsSeparator(chars);
+    }
 
     /**
      * 根据当前 StringReader 的分隔符和转义符设置, 为传入的字符串新建一个读取器
@@ -167,9 +224,13 @@ public abstract class StringReader {
      */
     public abstract @NonNull StringReader copy();
 
-    public abstract char getSeparator();
+    public char getSeparator() {
+        return charClasses.getSeparator();
+    }
 
-    public abstract @NonNull Set<Character> getSeparators();
+    public @NonNull Set<Character> getSeparators() {
+        return charClasses.getSeparators();
+    }
 
     /**
      * 当前偏移位置是否存在字符
@@ -359,7 +420,31 @@ public abstract class StringReader {
      * @return 一段参数文本，若无法识别则返回空字符串 {@code ""}
      */
     public @NonNull String readString() {
-        val result = new StringBuilder();
+        val string = this.string;
+        val charClasses = this.charClasses;
+        val length = string.length();
+        val start = offset;
+        var index = start;
+        while (index < length) {
+            val type = charClasses.classify(string.charAt(index));
+            if (type == CharClassTable.ESCAPE) {
+                offset = index;
+                return readEscapedString(new StringBuilder(length - start).append(string, start, index));
+            }
+            if (type == CharClassTable.SEPARATOR) break;
+            index++;
+        }
+        offset = index;
+        return string.substring(start, index);
+    }
+
+    /**
+     * 遇到转义符后的逐字符读取, 读取结果追加到给定 {@link StringBuilder}
+     *
+     * @param result 已读取的文本
+     * @return 一段参数文本
+     */
+    private @NonNull String readEscapedString(@NonNull StringBuilder result) {
         var escaping = false;
 
         while (canRead()) {
@@ -393,12 +478,114 @@ public abstract class StringReader {
 
     /**
      * {@code return readString().toLowerCase();}
+     * <p>
+     * 不含转义符的纯 ASCII 文本片段直接在一次复制中完成小写转换。
      *
      * @return 一段转小写的参数文本，若无法识别则返回空字符串
      * @see StringReader#readString()
      */
     public @NonNull String readLowerCaseString() {
-        return readString().toLowerCase();
+        val string = this.string;
+        val length = string.length();
+        val start = offset;
+        var index = start;
+        var upper = false;
+        val charClasses = this.charClasses;
+        while (index < length) {
+            val current = string.charAt(index);
+            val type = charClasses.classify(current);
+            if (type == CharClassTable.ESCAPE || current >= 0x80 || current == 'I') {
+                // 转义序列与非 ASCII 字符(以及受 Locale 影响的 'I')交由 String#toLowerCase 处理
+                offset = start;
+                return readString().toLowerCase();
+            }
+            if (type == CharClassTable.SEPARATOR) break;
+            if (current >= 'A' && current <= 'Z') upper = true;
+            index++;
+        }
+        offset = index;
+        if (!upper) return string.substring(start, index);
+        val chars = new char[index - start];
+        for (int i = 0; i < chars.length; i++) {
+            val current = string.charAt(start + i);
+            chars[i] = current >= 'A' && current <= 'Z' ? (char) (current + ('a' - 'A')) : current;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 从当前偏移量开始读取一段文本片段, 转义规则与 {@link StringReader#readString()} 一致
+     * <p>
+     * 返回的片段直接引用底层字符串，仅在存在需要消解的转义序列时才复制字符。<br>
+     * 同一读取器的每次调用都会复用并覆盖同一个 {@link Token} 实例，片段内容仅在下一次调用前有效。
+     *
+     * @return 文本片段视图，若无法识别则返回空片段
+     */
+    public @NonNull Token readToken() {
+        var token = this.token;
+        if (token == null) {
+            token = this.token = new Token();
+        }
+        val string = this.string;
+        val length = string.length();
+        val start = offset;
+        StringBuilder buffer = null;
+        var copied = start;
+        var index = start;
+        val charClasses = this.charClasses;
+        while (index < length) {
+            val type = charClasses.classify(string.charAt(index));
+            if (type == CharClassTable.ESCAPE) {
+                if (index + 1 < length) {
+                    val next = string.charAt(index + 1);
+                    if (next == escape || charClasses.isSeparator(next)) {
+                        if (buffer == null) buffer = token.buffer();
+                        buffer.append(string, copied, index).append(next);
+                        index += 2;
+                        copied = index;
+                        continue;
+                    }
+                }
+                index++;
+                continue;
+            }
+            if (type == CharClassTable.SEPARATOR) break;
+            index++;
+        }
+        offset = index;
+        if (buffer == null) {
+            token.set(string, start, index);
+        } else {
+            buffer.append(string, copied, index);
+            token.setEscaped(string, start, index);
+        }
+        return token;
+    }
+
+    /**
+     * 查看下一段文本片段(不移动偏移量)
+     *
+     * @return 文本片段视图，内容仅在下一次读取前有效
+     * @see StringReader#readToken()
+     */
+    public @NonNull Token peekToken() {
+        val start = offset;
+        val result = readToken();
+        offset = start;
+        return result;
+    }
+
+    /**
+     * 从当前偏移量开始读取一段转义后的文本片段, 并追加到给定 {@link StringBuilder}
+     *
+     * @param builder 目标 StringBuilder
+     * @return 追加的字符数量
+     * @see StringReader#readString()
+     */
+    public int readInto(@NonNull StringBuilder builder) {
+        val token = readToken();
+        token.appendTo(builder);
+        return token.length();
     }
 
     /**
@@ -0,0 +1,158 @@
+package pers.neige.colonel.reader;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * 可复用的文本片段视图
+ * <p>
+ * 由 {@link StringReader#readToken()} 返回，直接引用读取器的底层字符串而不复制字符。<br>
+ * 仅当片段中存在需要消解的转义序列（转义符后紧跟转义符或分隔符）时，才会将消解后的字符写入内部缓冲区。<br>
+ * 同一读取器每次读取都会复用同一个实例，因此片段内容仅在下一次读取前有效，需要长期持有时请调用 {@link Token#toString()}。
+ */
+@SuppressWarnings("unused")
+public final class Token implements CharSequence {
+    /**
+     * 转义消解缓冲区
+     */
+    private final @NonNull StringBuilder buffer = new StringBuilder();
+    /**
+     * 底层字符串
+     */
+    private @NonNull String string = "";
+    /**
+     * 片段在底层字符串中的起始偏移量(包含)
+     */
+    @Getter
+    private int start;
+    /**
+     * 片段在底层字符串中的结束偏移量(不包含)
+     */
+    @Getter
+    private int end;
+    /**
+     * 片段是否包含需要消解的转义序列
+     */
+    private boolean escaped;
+
+    Token() {
+    }
+
+    /**
+     * 设置为不含转义序列的片段
+     */
+    void set(@NonNull String string, int start, int end) {
+        this.string = string;
+        this.start = start;
+        this.end = end;
+        this.escaped = false;
+    }
+
+    /**
+     * 设置为包含转义序列的片段, 消解后的字符位于 {@link Token#buffer()} 中
+     */
+    void setEscaped(@NonNull String string, int start, int end) {
+        this.string = string;
+        this.start = start;
+        this.end = end;
+        this.escaped = true;
+    }
+
+    /**
+     * @return 清空后的转义消解缓冲区
+     */
+    @NonNull StringBuilder buffer() {
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * @return 片段是否包含需要消解的转义序列
+     */
+    public boolean isEscaped() {
+        return escaped;
+    }
+
+    /**
+     * @return 片段是否为空
+     */
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    @Override
+    public int length() {
+        return escaped ? buffer.length() : end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (escaped) return buffer.charAt(index);
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + (end - start));
+        }
+        return string.charAt(start + index);
+    }
+
+    @Override
+    public @NonNull CharSequence subSequence(int start, int end) {
+        return escaped ? buffer.subSequence(start, end) : string.subSequence(this.start + start, this.start + end);
+    }
+
+    /**
+     * 比较片段内容与给定文本是否一致
+     *
+     * @param other 给定文本
+     * @return 是否一致
+     */
+    public boolean contentEquals(@NonNull CharSequence other) {
+        val length = length();
+        if (other.length() != length) return false;
+        if (!escaped && other instanceof String) {
+            return string.regionMatches(start, (String) other, 0, length);
+        }
+        for (int index = 0; index < length; index++) {
+            if (charAt(index) != other.charAt(index)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 忽略大小写比较片段内容与给定文本是否一致
+     *
+     * @param other 给定文本
+     * @return 是否一致
+     */
+    public boolean equalsIgnoreCase(@NonNull CharSequence other) {
+        val length = length();
+        if (other.length() != length) return false;
+        if (!escaped && other instanceof String) {
+            return string.regionMatches(true, start, (String) other, 0, length);
+        }
+        for (int index = 0; index < length; index++) {
+            val a = charAt(index);
+            val b = other.charAt(index);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 将消解后的片段内容追加到给定 {@link StringBuilder}
+     *
+     * @param builder 目标 StringBuilder
+     * @return 目标 StringBuilder
+     */
+    public @NonNull StringBuilder appendTo(@NonNull StringBuilder builder) {
+        return escaped ? builder.append(buffer) : builder.append(string, start, end);
+    }
+
+    /**
+     * @return 消解后的片段内容, 不含转义序列时仅产生一次 substring
+     */
+    @Override
+    public @NonNull String toString() {
+        return escaped ? buffer.toString() : string.substring(start, end);
+    }
+}
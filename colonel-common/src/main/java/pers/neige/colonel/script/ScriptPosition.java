@@ -0,0 +1,28 @@
+package pers.neige.colonel.script;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 指令脚本中的位置
+ * <p>
+ * 由 {@link ScriptRunner.Listener#onProgress(ScriptPosition)} 报告, 可直接传入 {@link ScriptRunner#run(java.nio.file.Path, Object, ScriptPosition, ScriptRunner.Listener)} 以从该位置继续执行。
+ */
+@Data
+@AllArgsConstructor
+@SuppressWarnings("unused")
+public final class ScriptPosition {
+    /**
+     * 脚本开头
+     */
+    public static final ScriptPosition START = new ScriptPosition(0, 0);
+
+    /**
+     * 下一行的行号, 从 0 开始计数
+     */
+    private final long line;
+    /**
+     * 下一行在文件中的字节偏移量
+     */
+    private final long offset;
+}
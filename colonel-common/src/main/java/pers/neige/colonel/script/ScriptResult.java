@@ -0,0 +1,30 @@
+package pers.neige.colonel.script;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * 指令脚本执行结果
+ */
+@Data
+@AllArgsConstructor
+@SuppressWarnings("unused")
+public final class ScriptResult {
+    /**
+     * 执行结束时的位置, 可用于继续执行
+     */
+    private final @NonNull ScriptPosition end;
+    /**
+     * 成功执行的行数
+     */
+    private final long executed;
+    /**
+     * 执行失败的行数
+     */
+    private final long failed;
+    /**
+     * 是否已执行到文件末尾, 因失败中止时为 false
+     */
+    private final boolean completed;
+}
@@ -0,0 +1,270 @@
+package pers.neige.colonel.script;
+
+import lombok.*;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.reader.StringReader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * 指令脚本执行器
+ * <p>
+ * 以内存映射的方式逐窗口读取脚本文件, 每一行视为一条指令交由 {@link Node} 执行, 执行结果通过 {@link Listener} 以流的形式报告。<br>
+ * 行内容在扫描换行符的同时写入复用的字节缓冲区, 仅在解码为 {@link String} 时复制一次, 内存占用与文件大小无关。<br>
+ * 映射窗口依次平铺整个文件, 因此支持超过 2GB 的脚本, 跨越窗口边界的行也无需重新映射。
+ * <p>
+ * 空行会被跳过但仍计入行号, 文件开头的 UTF-8 BOM 与行尾的 {@code \r} 会被忽略。
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@SuppressWarnings("unused")
+public class ScriptRunner<S, R> {
+    /**
+     * 执行指令的节点
+     */
+    private final @NonNull Node<S, R> root;
+    /**
+     * 读取器模板, 每一行通过 {@link StringReader#newReaderWithSameConfig(String)} 创建读取器<br>
+     * 默认值 {@code StringReader.of("")}
+     */
+    @Builder.Default
+    private final @NonNull StringReader reader = StringReader.of("");
+    /**
+     * 脚本文件编码, 只支持与 ASCII 兼容的编码（如 UTF-8、GBK、ISO-8859-1）<br>
+     * 换行符按原始字节 {@code 0x0A} 切分, UTF-16、UTF-32 等编码会在字符内部切分, 执行时将抛出 {@link IllegalArgumentException}<br>
+     * 默认值 {@code UTF-8}
+     */
+    @Builder.Default
+    private final @NonNull Charset charset = StandardCharsets.UTF_8;
+    /**
+     * 每个映射窗口的字节数<br>
+     * 默认值 {@code 64MB}
+     */
+    @Builder.Default
+    private final int windowSize = 1 << 26;
+    /**
+     * 每执行多少行报告一次进度<br>
+     * 默认值 {@code 10000}
+     */
+    @Builder.Default
+    private final long progressInterval = 10000;
+    /**
+     * 出现失败时中止执行<br>
+     * 默认值 {@code false}
+     */
+    @Builder.Default
+    private final boolean stopOnFailure = false;
+    /**
+     * 默认执行器, 可为 null
+     */
+    private final @Nullable Function<Context<S, R>, R> defExecutor;
+
+    /**
+     * @param root 执行指令的节点
+     */
+    public ScriptRunner(@NonNull Node<S, R> root) {
+        this.root = root;
+        this.reader = StringReader.of("");
+        this.charset = StandardCharsets.UTF_8;
+        this.windowSize = 1 << 26;
+        this.progressInterval = 10000;
+        this.stopOnFailure = false;
+        this.defExecutor = null;
+    }
+
+    /**
+     * 从脚本开头执行
+     *
+     * @param path     脚本文件
+     * @param source   执行源
+     * @param listener 执行监听器
+     * @return 执行结果
+     * @throws IOException 读取文件失败
+     */
+    public @NonNull ScriptResult run(@NonNull Path path, @Nullable S source, @NonNull Listener<S, R> listener) throws IOException {
+        return run(path, source, ScriptPosition.START, 0, listener);
+    }
+
+    /**
+     * 从指定行开始执行, 此前的行只扫描换行符而不解码
+     *
+     * @param path      脚本文件
+     * @param source    执行源
+     * @param startLine 起始行号, 从 0 开始计数
+     * @param listener  执行监听器
+     * @return 执行结果
+     * @throws IOException 读取文件失败
+     */
+    public @NonNull ScriptResult run(@NonNull Path path, @Nullable S source, long startLine, @NonNull Listener<S, R> listener) throws IOException {
+        if (startLine < 0) {
+            throw new IllegalArgumentException("startLine must not be negative");
+        }
+        return run(path, source, ScriptPosition.START, startLine, listener);
+    }
+
+    /**
+     * 从指定位置继续执行, 直接定位到对应的字节偏移量
+     *
+     * @param path     脚本文件
+     * @param source   执行源
+     * @param start    起始位置, 通常来自此前报告的进度或执行结果
+     * @param listener 执行监听器
+     * @return 执行结果
+     * @throws IOException 读取文件失败
+     */
+    public @NonNull ScriptResult run(@NonNull Path path, @Nullable S source, @NonNull ScriptPosition start, @NonNull Listener<S, R> listener) throws IOException {
+        return run(path, source, start, start.getLine(), listener);
+    }
+
+    private @NonNull ScriptResult run(
+        @NonNull Path path,
+        @Nullable S source,
+        @NonNull ScriptPosition start,
+        long startLine,
+        @NonNull Listener<S, R> listener
+    ) throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be greater than 0");
+        }
+        if (!Arrays.equals("\r\n".getBytes(charset), new byte[]{'\r', '\n'})) {
+            throw new IllegalArgumentException("charset must be ASCII compatible, unsupported charset: " + charset.name());
+        }
+        if (progressInterval <= 0) {
+            throw new IllegalArgumentException("progressInterval must be greater than 0");
+        }
+        try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            val size = channel.size();
+            var position = start.getOffset();
+            if (position < 0 || position > size) {
+                throw new IllegalArgumentException("offset " + position + " out of file size " + size);
+            }
+            var line = start.getLine();
+            var executed = 0L;
+            var failed = 0L;
+            var bytes = new byte[256];
+            var windowStart = position;
+            var window = map(channel, windowStart, size);
+            var index = 0;
+            while (position < size) {
+                val skipping = line < startLine;
+                val lineStart = position;
+                var length = 0;
+                var terminated = false;
+                while (true) {
+                    if (index >= window.limit()) {
+                        if (windowStart + index >= size) break;
+                        windowStart += index;
+                        window = map(channel, windowStart, size);
+                        index = 0;
+                    }
+                    val b = window.get(index++);
+                    if (b == '\n') {
+                        terminated = true;
+                        break;
+                    }
+                    if (skipping) continue;
+                    if (length == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, length << 1);
+                    }
+                    bytes[length++] = b;
+                }
+                position = windowStart + index;
+                if (!terminated && position == lineStart) break;
+                val current = line++;
+                if (!skipping) {
+                    var from = 0;
+                    if (lineStart == 0 && length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+                        from = 3;
+                    }
+                    if (length > from && bytes[length - 1] == '\r') {
+                        length--;
+                    }
+                    if (length > from) {
+                        val text = new String(bytes, from, length - from, charset);
+                        if (execute(current, text, source, listener)) {
+                            executed++;
+                        } else {
+                            failed++;
+                            if (stopOnFailure) {
+                                val end = new ScriptPosition(line, position);
+                                listener.onProgress(end);
+                                return new ScriptResult(end, executed, failed, false);
+                            }
+                        }
+                    }
+                }
+                if (line % progressInterval == 0) {
+                    listener.onProgress(new ScriptPosition(line, position));
+                }
+            }
+            val end = new ScriptPosition(line, position);
+            listener.onProgress(end);
+            return new ScriptResult(end, executed, failed, true);
+        }
+    }
+
+    /**
+     * 执行一行指令
+     *
+     * @return 是否执行成功
+     */
+    private boolean execute(long line, @NonNull String text, @Nullable S source, @NonNull Listener<S, R> listener) {
+        try {
+            val context = root.parseExecuteContext(reader.newReaderWithSameConfig(text), source);
+            val result = context.execute(defExecutor);
+            listener.onLine(line, context, result);
+            return context.isExecutable();
+        } catch (RuntimeException e) {
+            listener.onError(line, text, e);
+            return false;
+        }
+    }
+
+    private @NonNull MappedByteBuffer map(@NonNull FileChannel channel, long start, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+
+    /**
+     * 脚本执行监听器
+     */
+    public interface Listener<S, R> {
+        /**
+         * 一行指令解析并执行完毕, 无法解析的行同样会经过此回调, 此时 {@link Context#isExecutable()} 为 false
+         *
+         * @param line    行号, 从 0 开始计数
+         * @param context 解析上下文
+         * @param result  执行结果
+         */
+        default void onLine(long line, @NonNull Context<S, R> context, @Nullable R result) {
+        }
+
+        /**
+         * 一行指令在解析或执行时抛出异常
+         *
+         * @param line  行号, 从 0 开始计数
+         * @param text  指令文本
+         * @param error 抛出的异常
+         */
+        default void onError(long line, @NonNull String text, @NonNull RuntimeException error) {
+        }
+
+        /**
+         * 执行进度, 每执行 {@link ScriptRunner#getProgressInterval()} 行及执行结束时报告一次
+         *
+         * @param position 当前位置, 可用于继续执行
+         */
+        default void onProgress(@NonNull ScriptPosition position) {
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package pers.neige.colonel.trie;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * 忽略大小写的字面量前缀树
+ * <p>
+ * 识别名逐字符转为小写后以压缩路径存储, 匹配时直接逐字符读取 {@link StringReader} 的底层字符串, 不产生任何中间对象。<br>
+ * 转义规则与 {@link StringReader#readString()} 一致, 且原生支持包含分隔符的识别名。
+ * <p>
+ * {@link LiteralTrie#copy()} 的开销为 O(1), 副本与原前缀树共享全部节点, 任意一方修改时只复制修改路径上的节点。<br>
+ * 前缀树本身不是线程安全的, 需要并发读取时应修改副本, 再将副本整体发布。
+ */
+@SuppressWarnings("unused")
+public class LiteralTrie<T> {
+    private static final char[] EMPTY_CHARS = new char[0];
+    private static final TrieNode<?>[] EMPTY_CHILDREN = new TrieNode<?>[0];
+
+    /**
+     * 所有权标记, 只有标记相同的节点可以原地修改, 其余节点修改前需先复制
+     */
+    private @NonNull Object owner = new Object();
+    /**
+     * 根节点
+     */
+    private @NonNull TrieNode<T> root = new TrieNode<>(owner, "");
+    /**
+     * 识别名数量
+     */
+    @Getter
+    private int size = 0;
+
+    public LiteralTrie() {
+    }
+
+    private LiteralTrie(@NonNull TrieNode<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * 将识别名转为存储时使用的小写形式
+     *
+     * @param key 识别名
+     * @return 小写识别名
+     */
+    public static @NonNull String normalize(@NonNull String key) {
+        for (int index = 0; index < key.length(); index++) {
+            val c = key.charAt(index);
+            if (Character.toLowerCase(c) != c) {
+                val chars = key.toCharArray();
+                for (int i = index; i < chars.length; i++) {
+                    chars[i] = Character.toLowerCase(chars[i]);
+                }
+                return new String(chars);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * 复制前缀树<br>
+     * 副本与当前前缀树共享全部节点, 此后任意一方修改时只复制修改路径上的节点, 另一方不受影响
+     *
+     * @return 副本
+     */
+    public @NonNull LiteralTrie<T> copy() {
+        owner = new Object();
+        return new LiteralTrie<>(root, size);
+    }
+
+    /**
+     * @return 前缀树是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 添加识别名, 识别名已存在时覆盖原有值
+     *
+     * @param key   识别名
+     * @param value 识别名对应的值
+     * @return 原有值, 不存在则返回 null
+     */
+    public @Nullable T put(@NonNull String key, @NonNull T value) {
+        val normalized = normalize(key);
+        var node = root = own(root);
+        var index = 0;
+        while (index < normalized.length()) {
+            val slot = Arrays.binarySearch(node.chars, normalized.charAt(index));
+            if (slot < 0) {
+                val created = new TrieNode<T>(owner, normalized.substring(index));
+                created.entry = new Entry<>(normalized, value);
+                node.addChild(created);
+                size++;
+                return null;
+            }
+            var child = own(node.children[slot]);
+            node.children[slot] = child;
+            val label = child.label;
+            val common = commonPrefixLength(label, normalized, index);
+            if (common < label.length()) {
+                // 拆分路径: node -> middle -> child
+                val middle = new TrieNode<T>(owner, label.substring(0, common));
+                child.label = label.substring(common);
+                middle.addChild(child);
+                node.children[slot] = middle;
+                child = middle;
+            }
+            node = child;
+            index += common;
+        }
+        val previous = node.entry;
+        node.entry = new Entry<>(normalized, value);
+        if (previous == null) {
+            size++;
+            return null;
+        }
+        return previous.value;
+    }
+
+    /**
+     * 移除识别名, 同时合并或清理不再被使用的前缀树节点
+     *
+     * @param key 识别名
+     * @return 被移除的值, 不存在则返回 null
+     */
+    public @Nullable T remove(@NonNull String key) {
+        val normalized = normalize(key);
+        if (get(normalized) == null) return null;
+        TrieNode<T> parent = null;
+        var node = root = own(root);
+        var index = 0;
+        while (index < normalized.length()) {
+            val slot = Arrays.binarySearch(node.chars, normalized.charAt(index));
+            val child = own(node.children[slot]);
+            node.children[slot] = child;
+            parent = node;
+            node = child;
+            index += child.label.length();
+        }
+        val previous = node.entry;
+        if (previous == null) return null;
+        node.entry = null;
+        size--;
+        if (parent == null) return previous.value;
+        if (node.children.length == 0) {
+            parent.removeChild(node.label.charAt(0));
+            if (parent != root && parent.entry == null && parent.children.length == 1) {
+                parent.mergeChild();
+            }
+        } else if (node.children.length == 1) {
+            node.mergeChild();
+        }
+        return previous.value;
+    }
+
+    /**
+     * 根据识别名精确查找 (忽略大小写)
+     *
+     * @param key 识别名
+     * @return 识别名对应的值, 不存在则返回 null
+     */
+    public @Nullable T get(@NonNull CharSequence key) {
+        var node = root;
+        var index = 0;
+        while (index < key.length()) {
+            node = node.child(Character.toLowerCase(key.charAt(index)));
+            if (node == null) return null;
+            val label = node.label;
+            if (index + label.length() > key.length()) return null;
+            for (int i = 0; i < label.length(); i++) {
+                if (Character.toLowerCase(key.charAt(index + i)) != label.charAt(i)) return null;
+            }
+            index += label.length();
+        }
+        return node.entry == null ? null : node.entry.value;
+    }
+
+    /**
+     * 按小写识别名的字典序遍历以指定前缀开头的条目 (忽略大小写)<br>
+     * 只访问前缀所在的子树, 开销与匹配的条目数量成正比, 与识别名总数无关
+     *
+     * @param prefix  前缀
+     * @param visitor 条目访问器, 返回 false 时停止遍历
+     * @return 遍历是否完整结束, 被访问器中止时返回 false
+     */
+    public boolean forEachWithPrefix(@NonNull CharSequence prefix, @NonNull Predicate<Entry<T>> visitor) {
+        var node = root;
+        var index = 0;
+        while (index < prefix.length()) {
+            node = node.child(Character.toLowerCase(prefix.charAt(index)));
+            if (node == null) return true;
+            val label = node.label;
+            val end = Math.min(label.length(), prefix.length() - index);
+            for (int i = 1; i < end; i++) {
+                if (Character.toLowerCase(prefix.charAt(index + i)) != label.charAt(i)) return true;
+            }
+            index += label.length();
+        }
+        return visit(node, visitor);
+    }
+
+    /**
+     * 从读取器当前偏移量开始匹配最长的识别名
+     * <p>
+     * 识别名必须在分隔符或文本末尾处结束才视为匹配成功。<br>
+     * 匹配成功时偏移量移动到识别名末尾, 匹配失败时偏移量保持不变。
+     *
+     * @param input 输入的文本读取器
+     * @return 匹配到的条目, 匹配失败则返回 null
+     */
+    public @Nullable Entry<T> match(@NonNull StringReader input) {
+        val string = input.getString();
+        val length = string.length();
+        val escape = input.getEscape();
+        var offset = input.getOffset();
+        var node = root;
+        Entry<T> matched = null;
+        var matchedEnd = -1;
+        outer:
+        while (true) {
+            if (node.entry != null && (offset >= length || input.isSeparator(string.charAt(offset)))) {
+                matched = node.entry;
+                matchedEnd = offset;
+            }
+            if (offset >= length) break;
+            TrieNode<T> child = null;
+            for (int i = 0; ; i++) {
+                if (offset >= length) break outer;
+                var current = string.charAt(offset);
+                var step = 1;
+                if (current == escape && offset + 1 < length) {
+                    val next = string.charAt(offset + 1);
+                    if (next == escape || input.isSeparator(next)) {
+                        current = next;
+                        step = 2;
+                    }
+                }
+                current = Character.toLowerCase(current);
+                if (i == 0) {
+                    child = node.child(current);
+                    if (child == null) break outer;
+                } else if (child.label.charAt(i) != current) {
+                    break outer;
+                }
+                offset += step;
+                if (i + 1 == child.label.length()) break;
+            }
+            node = child;
+        }
+        if (matched != null) {
+            input.setOffset(matchedEnd);
+        }
+        return matched;
+    }
+
+    /**
+     * @return 可以原地修改的节点, 节点不属于当前前缀树时返回其副本
+     */
+    private @NonNull TrieNode<T> own(@NonNull TrieNode<T> node) {
+        return node.owner == owner ? node : node.copy(owner);
+    }
+
+    private static <T> boolean visit(@NonNull TrieNode<T> node, @NonNull Predicate<Entry<T>> visitor) {
+        val entry = node.entry;
+        if (entry != null && !visitor.test(entry)) return false;
+        for (val child : node.children) {
+            if (!visit(child, visitor)) return false;
+        }
+        return true;
+    }
+
+    private static int commonPrefixLength(@NonNull String label, @NonNull String key, int start) {
+        val max = Math.min(label.length(), key.length() - start);
+        var index = 0;
+        while (index < max && label.charAt(index) == key.charAt(start + index)) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * 前缀树条目
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static final class Entry<T> {
+        /**
+         * 小写识别名
+         */
+        private final @NonNull String key;
+        /**
+         * 识别名对应的值
+         */
+        private final @NonNull T value;
+    }
+
+    /**
+     * 前缀树节点, 单一路径会被压缩为一段标签, 子节点以标签首字符排序存储
+     */
+    private static final class TrieNode<T> {
+        /**
+         * 所属前缀树的所有权标记
+         */
+        private final @NonNull Object owner;
+        /**
+         * 从父节点到当前节点的小写字符序列
+         */
+        private @NonNull String label;
+        private char @NonNull [] chars = EMPTY_CHARS;
+        @SuppressWarnings("unchecked")
+        private @NonNull TrieNode<T>[] children = (TrieNode<T>[]) EMPTY_CHILDREN;
+        private @Nullable Entry<T> entry;
+
+        private TrieNode(@NonNull Object owner, @NonNull String label) {
+            this.owner = owner;
+            this.label = label;
+        }
+
+        /**
+         * 复制节点, 子节点数组被复制, 子节点本身共享
+         */
+        private @NonNull TrieNode<T> copy(@NonNull Object owner) {
+            val node = new TrieNode<T>(owner, label);
+            node.chars = chars;
+            node.children = children.clone();
+            node.entry = entry;
+            return node;
+        }
+
+        private @Nullable TrieNode<T> child(char c) {
+            val index = Arrays.binarySearch(chars, c);
+            return index < 0 ? null : children[index];
+        }
+
+        private void addChild(@NonNull TrieNode<T> child) {
+            val c = child.label.charAt(0);
+            val index = -Arrays.binarySearch(chars, c) - 1;
+            val newChars = new char[chars.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, index);
+            newChars[index] = c;
+            System.arraycopy(chars, index, newChars, index + 1, chars.length - index);
+            val newChildren = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            newChildren[index] = child;
+            chars = newChars;
+            children = newChildren;
+        }
+
+        private void removeChild(char c) {
+            val index = Arrays.binarySearch(chars, c);
+            if (index < 0) return;
+            val newChars = new char[chars.length - 1];
+            System.arraycopy(chars, 0, newChars, 0, index);
+            System.arraycopy(chars, index + 1, newChars, index, chars.length - index - 1);
+            val newChildren = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            chars = newChars;
+            children = newChildren;
+        }
+
+        /**
+         * 将唯一的子节点合并进当前节点, 子节点可能被其他前缀树共享, 因此复制其子节点数组
+         */
+        private void mergeChild() {
+            val child = children[0];
+            label = label + child.label;
+            chars = child.chars;
+            children = child.children.clone();
+            entry = child.entry;
+        }
+    }
+}
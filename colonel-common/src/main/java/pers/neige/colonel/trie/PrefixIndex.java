@@ -0,0 +1,192 @@
+package pers.neige.colonel.trie;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+
+import java.util.*;
+
+/**
+ * 忽略大小写的有序前缀索引
+ * <p>
+ * 构建时将所有补全显示名转为小写并排序, 补全时通过二分查找定位前缀区间, 不再对每个候选项调用 {@link String#toLowerCase()}。<br>
+ * 补全结果保持显示名的原始顺序。限制数量时通过原始序号的区间最小值线段树逐个取出序号最小的 K 个显示名,
+ * 开销为 O(K log K log n), 与匹配的显示名数量无关。构建完成后不可变, 可在多个线程间共享。
+ */
+@SuppressWarnings("unused")
+public final class PrefixIndex {
+    /**
+     * 空索引
+     */
+    public static final PrefixIndex EMPTY = new PrefixIndex(Collections.emptyList());
+
+    /**
+     * 按原始顺序排列的显示名
+     */
+    private final @NonNull String[] names;
+    /**
+     * 排序后的小写显示名
+     */
+    private final @NonNull String[] keys;
+    /**
+     * 排序后的小写显示名对应的原始序号
+     */
+    private final int @NonNull [] ordinals;
+    /**
+     * 区间最小值线段树, 叶子位于 {@code [size, 2 * size)}, 每个位置存放所辖区间内原始序号最小的排序位置
+     */
+    private final int @NonNull [] minTree;
+
+    /**
+     * @param names 按原始顺序排列的显示名
+     */
+    public PrefixIndex(@NonNull Collection<String> names) {
+        this.names = names.toArray(new String[0]);
+        val size = this.names.length;
+        val lowerCaseNames = new String[size];
+        val order = new Integer[size];
+        for (int index = 0; index < size; index++) {
+            lowerCaseNames[index] = this.names[index].toLowerCase();
+            order[index] = index;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer index) -> lowerCaseNames[index]));
+        this.keys = new String[size];
+        this.ordinals = new int[size];
+        for (int index = 0; index < size; index++) {
+            keys[index] = lowerCaseNames[order[index]];
+            ordinals[index] = order[index];
+        }
+        this.minTree = new int[size * 2];
+        for (int index = 0; index < size; index++) {
+            minTree[size + index] = index;
+        }
+        for (int index = size - 1; index > 0; index--) {
+            minTree[index] = earlier(minTree[index * 2], minTree[index * 2 + 1]);
+        }
+    }
+
+    /**
+     * @return 显示名数量
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * 获取以指定前缀开头的显示名（忽略大小写）
+     *
+     * @param prefix 前缀
+     * @return 按原始顺序排列的显示名
+     */
+    public @NonNull List<String> match(@NonNull String prefix) {
+        return match(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 获取以指定前缀开头的显示名（忽略大小写）, 最多返回 {@code limit} 条
+     *
+     * @param prefix 前缀
+     * @param limit  最大数量
+     * @return 按原始顺序排列的前 {@code limit} 个显示名
+     */
+    public @NonNull List<String> match(@NonNull String prefix, int limit) {
+        if (prefix.isEmpty()) {
+            return new ArrayList<>(Arrays.asList(names).subList(0, Math.min(limit, names.length)));
+        }
+        val lowerCasePrefix = prefix.toLowerCase();
+        val from = lowerBound(lowerCasePrefix);
+        val to = prefixEnd(lowerCasePrefix, from);
+        val result = new ArrayList<String>(Math.min(to - from, Math.max(limit, 0)));
+        if (to <= from || limit <= 0) return result;
+        if (to - from == 1) {
+            result.add(names[ordinals[from]]);
+        } else if (limit >= to - from) {
+            val matched = Arrays.copyOfRange(ordinals, from, to);
+            Arrays.sort(matched);
+            for (val ordinal : matched) {
+                result.add(names[ordinal]);
+            }
+        } else {
+            // 每个待选区间以其最小序号排序, 取出后将区间在该位置拆分
+            val queue = new PriorityQueue<int[]>(Math.min(limit, 64) * 2, Comparator.comparingInt((int[] range) -> ordinals[range[0]]));
+            queue.add(new int[]{minPosition(from, to), from, to});
+            while (result.size() < limit) {
+                val range = queue.poll();
+                if (range == null) break;
+                val position = range[0];
+                result.add(names[ordinals[position]]);
+                if (range[1] < position) {
+                    queue.add(new int[]{minPosition(range[1], position), range[1], position});
+                }
+                if (position + 1 < range[2]) {
+                    queue.add(new int[]{minPosition(position + 1, range[2]), position + 1, range[2]});
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return 从 {@code from} 开始, 第一个不以 {@code prefix} 开头的小写显示名的位置
+     */
+    private int prefixEnd(@NonNull String prefix, int from) {
+        var low = from;
+        var high = keys.length;
+        while (low < high) {
+            val mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return 排序位置区间 {@code [from, to)} 内原始序号最小的位置
+     */
+    private int minPosition(int from, int to) {
+        val size = keys.length;
+        var best = -1;
+        var low = from + size;
+        var high = to + size;
+        while (low < high) {
+            if ((low & 1) == 1) {
+                best = best < 0 ? minTree[low] : earlier(best, minTree[low]);
+                low++;
+            }
+            if ((high & 1) == 1) {
+                high--;
+                best = best < 0 ? minTree[high] : earlier(best, minTree[high]);
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+        return best;
+    }
+
+    /**
+     * @return 两个排序位置中原始序号较小的一个
+     */
+    private int earlier(int a, int b) {
+        return ordinals[a] <= ordinals[b] ? a : b;
+    }
+
+    /**
+     * @return 第一个不小于 {@code key} 的小写显示名的位置
+     */
+    private int lowerBound(@NonNull String key) {
+        var low = 0;
+        var high = keys.length;
+        while (low < high) {
+            val mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,69 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.capability.CapabilityRegistry;
+import pers.neige.colonel.capability.CapabilitySource;
+import pers.neige.colonel.node.AccessViews;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CapabilityRegistryTest {
+    @Test
+    public void mask() {
+        val registry = new CapabilityRegistry();
+        assertEquals(0, registry.index("admin"));
+        assertEquals(1, registry.index("mod"));
+        assertEquals(0, registry.index("admin"));
+        assertEquals(0b11L, registry.mask("mod", "admin"));
+        assertEquals(0b10L, registry.maskOfRegistered(Arrays.asList("mod", "unknown")));
+        assertFalse(registry.contains("unknown"));
+        assertEquals(Arrays.asList("admin", "mod"), registry.names(0b11L));
+        for (int index = registry.size(); index < CapabilityRegistry.MAX_SIZE; index++) {
+            registry.index("capability" + index);
+        }
+        assertEquals(Long.MIN_VALUE, registry.mask("capability63"));
+        assertThrows(IllegalArgumentException.class, () -> registry.index("overflow"));
+    }
+
+    @Test
+    public void dispatch() {
+        val registry = new CapabilityRegistry();
+        val root = new RootNode<CapabilitySource, String>("root");
+        root.thenLiteral("help").setExecutor(context -> "help");
+        root.thenLiteral("kick").requireCapabilities(registry, "mod").setExecutor(context -> "kick");
+        root.thenLiteral("stop").requireCapabilities(registry, "mod", "admin").setExecutor(context -> "stop");
+        root.thenLiteral("give").thenArgument("amount", new IntegerArgument<CapabilitySource, String>())
+            .requireCapabilities(registry, "admin")
+            .setExecutor(context -> "give " + context.getArgument("amount"));
+
+        CapabilitySource guest = () -> 0L;
+        CapabilitySource mod = () -> registry.mask("mod");
+        CapabilitySource admin = () -> registry.mask("mod", "admin");
+
+        assertEquals(Arrays.asList("help", "give"), root.tab(StringReader.of(""), guest));
+        assertEquals(Arrays.asList("help", "kick", "give"), root.tab(StringReader.of(""), mod));
+        assertEquals(Arrays.asList("help", "kick", "stop", "give"), root.tab(StringReader.of(""), admin));
+        assertNull(root.execute(StringReader.of("kick"), guest));
+        assertEquals("kick", root.execute(StringReader.of("kick"), mod));
+        assertNull(root.execute(StringReader.of("stop"), mod));
+        assertEquals("stop", root.execute(StringReader.of("stop"), admin));
+        assertNull(root.execute(StringReader.of("give 1"), mod));
+        assertEquals("give 1", root.execute(StringReader.of("give 1"), admin));
+
+        val views = new AccessViews<>(root, CapabilitySource::capabilitiesOf);
+        assertEquals(Collections.singletonList("stop"), views.get(admin).tab(StringReader.of("s"), admin));
+        assertEquals(Collections.emptyList(), views.get(mod).tab(StringReader.of("s"), mod));
+        assertEquals("def", views.get(guest).execute(StringReader.of("kick"), guest, context -> "def"));
+
+        root.getChildNodes().get("kick").setRequiredCapabilities(0L);
+        assertEquals("kick", root.execute(StringReader.of("kick"), guest));
+        assertEquals(Arrays.asList("help", "kick", "give"), views.get(guest).tab(StringReader.of(""), guest));
+    }
+}
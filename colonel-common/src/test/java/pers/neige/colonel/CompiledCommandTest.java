@@ -0,0 +1,67 @@
+package pers.neige.colonel;
+
+import lombok.NonNull;
+import lombok.val;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.Argument;
+import pers.neige.colonel.arguments.ParseResult;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.reader.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledCommandTest {
+    @Test
+    public void execute() {
+        val parseCount = new int[1];
+        val counter = new IntegerArgument<String, String>() {
+            @Override
+            public @NonNull ParseResult<Integer> parse(@NonNull NodeChain<String, String> nodeChain, @NonNull StringReader input, @Nullable String source) {
+                parseCount[0]++;
+                return super.parse(nodeChain, input, source);
+            }
+        };
+        // 解析结果为 "执行源:文本", 与执行源相关
+        val owned = new Argument<String, String, String>() {
+            @Override
+            public @NonNull ParseResult<String> parse(@NonNull NodeChain<String, String> nodeChain, @NonNull StringReader input, @Nullable String source) {
+                return new ParseResult<>(source + ":" + input.readString(), true);
+            }
+        };
+        val root = new RootNode<String, String>("root")
+            .then(LiteralNode.<String, String>literal("give").then(
+                ArgumentNode.<String, Integer, String>argument("amount", counter)
+                    .setExecutor(context -> "give " + context.getArgument("amount"))
+                    .then(ArgumentNode.<String, String, String>argument("item", owned)
+                        .setExecutor(context -> "give " + context.getArgument("amount") + " " + context.getArgument("item")))
+            ));
+
+        val bound = root.compileCommand(StringReader.of("give 64"));
+        assertTrue(bound.isBound());
+        assertEquals(1, parseCount[0]);
+        assertEquals("give 64", bound.execute("a"));
+        assertEquals("give 64", bound.execute("b"));
+        assertEquals(1, parseCount[0]);
+
+        val prepared = root.compileCommand(StringReader.of("give 32 apple"));
+        assertFalse(prepared.isBound());
+        assertEquals(2, prepared.getBoundSize());
+        assertEquals("give 32 a:apple", prepared.execute("a"));
+        assertEquals("give 32 b:apple", prepared.execute("b"));
+        assertEquals(2, parseCount[0]);
+
+        val failed = root.compileCommand(StringReader.of("give x"));
+        assertTrue(failed.isBound());
+        assertFalse(failed.parseExecuteContext("a").isExecutable());
+        assertEquals(3, parseCount[0]);
+
+        root.then(LiteralNode.literal("take"));
+        assertEquals("give 64", bound.execute("c"));
+        assertEquals(4, parseCount[0]);
+    }
+}
@@ -0,0 +1,127 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.arguments.impl.MapArgument;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.node.CompiledTree;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CompiledTreeTest {
+    private static final List<String> INPUTS = Arrays.asList(
+        "",
+        " ",
+        "hello hello",
+        "hello1",
+        "hello1 hello",
+        "hello2",
+        "hello2 ",
+        "hello2 world",
+        "hello2 world1",
+        "hello2 world1 hello",
+        "hello3 ",
+        "hello3 te",
+        "hello3 map1",
+        "hello3 test1",
+        "hello4 123123",
+        "hello4 test",
+        "hello5 123123",
+        "allow",
+        "allow ",
+        "allow separator literal",
+        "allow separator literal world",
+        "allow separator literal world2",
+        "hello6",
+        "hello6 xxx",
+        "hello6 123",
+        "hello6hello",
+        "hello7",
+        "HELLO7",
+        "hellO8",
+        "hello8",
+        "HellO9",
+        "hel\\lo1",
+        "hello\\ 1"
+    );
+    private static Node<Void, String> node;
+    private static CompiledTree<Void, String> compiled;
+
+    @BeforeAll
+    public static void setup() {
+        Map<String, Integer> params0 = new HashMap<>();
+        params0.put("test1", 1);
+        params0.put("test2", 2);
+        params0.put("test3", 3);
+
+        Map<String, Integer> params1 = new HashMap<>();
+        params1.put("hello7", 1);
+        params1.put("hellO8", 2);
+
+        node = new RootNode<Void, String>("root")
+            .setExecutor((context) -> "啥也妹有")
+            .then(LiteralNode.literal("hello1"))
+            .then(LiteralNode.<Void, String>literal("hello2").then(LiteralNode.literal("world1")))
+            .then(LiteralNode.<Void, String>literal("hello3").then(
+                ArgumentNode.argument("map1", new MapArgument<>(() -> params0))
+            ))
+            .then(LiteralNode.<Void, String>literal("hello4").then(
+                ArgumentNode.argument("int1", new IntegerArgument<>())
+            ))
+            .then(LiteralNode.<Void, String>literal("hello5").then(
+                ArgumentNode.<Void, Integer, String>argument("int2", new IntegerArgument<>()).setExecutor((context) -> {
+                    Integer int2 = context.getArgument("int2", Integer.class);
+                    return "当前输入的整形参数是: " + int2;
+                })
+            ))
+            .then(LiteralNode.<Void, String>literal("allow separator literal").then(LiteralNode.literal("world2")))
+            .then(LiteralNode.<Void, String>literal("hello6").then(
+                ArgumentNode.argument("int3", new IntegerArgument<Void, String>().setDefaultValue(0))
+            ))
+            .then(LiteralNode.literal("hello6hello"))
+            .then(LiteralNode.literal("hello7", params1))
+            .then(LiteralNode.literal("HELLO9"));
+        compiled = node.compile();
+    }
+
+    private static void assertSameContext(Context<Void, String> expected, Context<Void, String> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isExecutable(), actual.isExecutable());
+        assertEquals(expected.getInput().getOffset(), actual.getInput().getOffset());
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.get(index).getNode(), actual.get(index).getNode());
+            assertEquals(expected.get(index).getArgument(), actual.get(index).getArgument());
+        }
+    }
+
+    @Test
+    public void parse() {
+        assertEquals(node, compiled.getRoot());
+        for (val input : INPUTS) {
+            assertSameContext(
+                node.parseExecuteContext(StringReader.of(input), null),
+                compiled.parseExecuteContext(StringReader.of(input), null)
+            );
+            assertEquals(node.execute(StringReader.of(input), null), compiled.execute(StringReader.of(input), null));
+        }
+    }
+
+    @Test
+    public void tab() {
+        for (val input : INPUTS) {
+            assertEquals(node.tab(StringReader.of(input), null), compiled.tab(StringReader.of(input), null), input);
+        }
+    }
+}
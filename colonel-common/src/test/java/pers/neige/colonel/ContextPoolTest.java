@@ -0,0 +1,46 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextPoolTest {
+    @Test
+    public void execute() {
+        val snapshots = new ArrayList<Context<Void, String>>();
+        val contexts = new ArrayList<Context<Void, String>>();
+        val root = new RootNode<Void, String>("root").setContextPooling(true);
+        root.then(LiteralNode.<Void, String>literal("int").then(
+                ArgumentNode.<Void, Integer, String>argument("int", new IntegerArgument<>()).setExecutor((context) -> {
+                    contexts.add(context);
+                    snapshots.add(context.snapshot());
+                    return "int: " + context.getArgument("int");
+                })
+            ))
+            .then(LiteralNode.<Void, String>literal("nested").setExecutor((context) -> {
+                val result = context.getRoot().execute(StringReader.of("int 2"), null);
+                return context.getArgument("nested") + " " + result;
+            }));
+
+        assertEquals("int: 1", root.execute(StringReader.of("int 1"), null));
+        assertEquals("nested int: 2", root.execute(StringReader.of("nested"), null));
+        assertEquals("int: 3", root.execute(StringReader.of("int 3"), null));
+        assertNull(root.execute(StringReader.of("int x"), null));
+
+        assertEquals(3, snapshots.size());
+        assertEquals(1, snapshots.get(0).<Integer>getArgument("int"));
+        assertEquals(2, snapshots.get(1).<Integer>getArgument("int"));
+        assertEquals(3, snapshots.get(2).<Integer>getArgument("int"));
+        assertSame(contexts.get(0), contexts.get(2));
+        assertTrue(contexts.get(0).getNodeChain().isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import lombok.var;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.reader.StringReader;
+import pers.neige.colonel.trie.LiteralTrie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiteralTrieTest {
+    private static LiteralTrie<String> trie() {
+        val trie = new LiteralTrie<String>();
+        trie.put("hello", "hello");
+        trie.put("hello6", "hello6");
+        trie.put("hello6hello", "hello6hello");
+        trie.put("allow separator literal", "allow separator literal");
+        trie.put("HELLO9", "HELLO9");
+        trie.put("a\\b", "a\\b");
+        return trie;
+    }
+
+    @Test
+    public void get() {
+        val trie = trie();
+        assertEquals(6, trie.getSize());
+        assertEquals("hello", trie.get("HeLLo"));
+        assertEquals("HELLO9", trie.get("hello9"));
+        assertNull(trie.get("hell"));
+        assertEquals("hello", trie.put("HELLO", "replaced"));
+        assertEquals(6, trie.getSize());
+        assertEquals("replaced", trie.get("hello"));
+    }
+
+    @Test
+    public void remove() {
+        val trie = trie();
+        assertEquals("hello6", trie.remove("HELLO6"));
+        assertNull(trie.remove("hello6"));
+        assertNull(trie.remove("hell"));
+        assertEquals(5, trie.getSize());
+        assertNull(trie.get("hello6"));
+        assertEquals("hello6hello", trie.get("hello6hello"));
+        assertEquals("hello", trie.get("hello"));
+
+        val reader = StringReader.of("hello6hello world");
+        assertEquals("hello6hello", trie.match(reader).getValue());
+        assertEquals(11, reader.getOffset());
+
+        assertEquals("hello6hello", trie.remove("hello6hello"));
+        assertEquals("hello", trie.remove("hello"));
+        assertEquals("HELLO9", trie.get("hello9"));
+        assertNull(trie.match(StringReader.of("hello")));
+    }
+
+    @Test
+    public void copy() {
+        val trie = trie();
+        val copy = trie.copy();
+        copy.put("hello7", "hello7");
+        copy.put("help", "help");
+        assertEquals("hello6", copy.remove("hello6"));
+        trie.put("world", "world");
+        assertEquals(7, trie.getSize());
+        assertEquals("hello6", trie.get("hello6"));
+        assertNull(trie.get("hello7"));
+        assertNull(trie.get("help"));
+        assertEquals(7, copy.getSize());
+        assertNull(copy.get("hello6"));
+        assertNull(copy.get("world"));
+        assertEquals("hello6hello", copy.get("hello6hello"));
+        assertEquals("help", copy.get("help"));
+    }
+
+    @Test
+    public void forEachWithPrefix() {
+        val trie = trie();
+        val values = new ArrayList<String>();
+        assertTrue(trie.forEachWithPrefix("HEL", entry -> values.add(entry.getValue())));
+        assertEquals(Arrays.asList("hello", "hello6", "hello6hello", "HELLO9"), values);
+
+        values.clear();
+        assertTrue(trie.forEachWithPrefix("hello6h", entry -> values.add(entry.getValue())));
+        assertEquals(Collections.singletonList("hello6hello"), values);
+
+        values.clear();
+        assertTrue(trie.forEachWithPrefix("help", entry -> values.add(entry.getValue())));
+        assertTrue(trie.forEachWithPrefix("hello6hellox", entry -> values.add(entry.getValue())));
+        assertTrue(values.isEmpty());
+
+        assertFalse(trie.forEachWithPrefix("", entry -> values.add(entry.getValue()) && values.size() < 2));
+        assertEquals(Arrays.asList("a\\b", "allow separator literal"), values);
+    }
+
+    @Test
+    public void match() {
+        val trie = trie();
+
+        var reader = StringReader.of("hello world");
+        assertEquals("hello", trie.match(reader).getValue());
+        assertEquals(5, reader.getOffset());
+
+        reader = StringReader.of("HELLO6");
+        assertEquals("hello6", trie.match(reader).getValue());
+        assertEquals(6, reader.getOffset());
+
+        reader = StringReader.of("hello6hello world");
+        assertEquals("hello6hello", trie.match(reader).getValue());
+        assertEquals(11, reader.getOffset());
+
+        reader = StringReader.of("hello6hel");
+        assertNull(trie.match(reader));
+        assertEquals(0, reader.getOffset());
+
+        reader = StringReader.of("allow separator literal world");
+        assertEquals("allow separator literal", trie.match(reader).getValue());
+        assertEquals(23, reader.getOffset());
+
+        reader = StringReader.of("allow\\ separator\\ literal world");
+        assertEquals("allow separator literal", trie.match(reader).getValue());
+        assertEquals(25, reader.getOffset());
+
+        reader = StringReader.of("allow separator");
+        assertNull(trie.match(reader));
+        assertEquals(0, reader.getOffset());
+
+        reader = StringReader.of("a\\b");
+        assertEquals("a\\b", trie.match(reader).getValue());
+
+        reader = StringReader.of("a\\\\b");
+        assertEquals("a\\b", trie.match(reader).getValue());
+        assertEquals(4, reader.getOffset());
+
+        reader = StringReader.of("hello,world", ',', '\\');
+        assertEquals("hello", trie.match(reader).getValue());
+        assertEquals(5, reader.getOffset());
+    }
+}
@@ -4,18 +4,28 @@ import lombok.val;
 import lombok.var;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.impl.BooleanArgument;
+import pers.neige.colonel.arguments.impl.DoubleArgument;
 import pers.neige.colonel.arguments.impl.IntegerArgument;
 import pers.neige.colonel.arguments.impl.MapArgument;
+import pers.neige.colonel.context.AsyncExecutors;
+import pers.neige.colonel.context.CompletionSink;
+import pers.neige.colonel.node.AccessViews;
 import pers.neige.colonel.node.Node;
 import pers.neige.colonel.node.impl.ArgumentNode;
 import pers.neige.colonel.node.impl.LiteralNode;
 import pers.neige.colonel.node.impl.RootNode;
 import pers.neige.colonel.reader.StringReader;
 
+import java.security.InvalidParameterException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -84,6 +94,53 @@ public class NodeTest {
         });
     }
 
+    @Test
+    public void thenLiterals() {
+        val payloads = new LinkedHashMap<String, Integer>();
+        for (int index = 0; index < 100; index++) {
+            payloads.put("Literal" + index, index);
+        }
+        val root = new RootNode<Void, String>("root");
+        root.thenLiterals(payloads);
+        root.thenLiterals(Arrays.asList(LiteralNode.literal("hello1"), LiteralNode.literal("allow separator literal")));
+        assertEquals(102, root.getChildNodes().size());
+        assertEquals(42, root.parseExecuteContext(StringReader.of("LITERAL42"), null).<Integer>getArgument("Literal42"));
+        assertEquals("allow separator literal", root.parseExecuteContext(StringReader.of("allow separator literal"), null).getArgument("allow separator literal"));
+
+        assertThrows(InvalidParameterException.class, () -> root.thenLiterals(Collections.singletonList(LiteralNode.literal("HELLO1"))));
+        assertThrows(InvalidParameterException.class, () -> root.thenLiterals(Arrays.asList(LiteralNode.literal("a"), LiteralNode.literal("b", "A"))));
+        assertEquals(102, root.getChildNodes().size());
+
+        val tree = new RootNode<Void, String>("root");
+        tree.thenLiteral("hello").then(LiteralNode.literal("world"), false);
+        tree.buildAllLiteralSearchers();
+        assertEquals(2, tree.parseExecuteContext(StringReader.of("hello world"), null).size());
+    }
+
+    @Test
+    public void thenOneByOne() {
+        val root = new RootNode<Void, String>("root");
+        val snapshot = root.getChildNodes();
+        assertTimeout(Duration.ofSeconds(10), () -> {
+            for (int index = 0; index < 40000; index++) {
+                root.then(LiteralNode.literal("Literal" + index));
+            }
+        });
+        assertEquals(40000, root.getChildNodes().size());
+        assertEquals(0, snapshot.size());
+        assertEquals("Literal39999", root.parseExecuteContext(StringReader.of("literal39999"), null).getNodeChain().last().getNode().getId());
+        assertEquals("Literal123", root.getLiteralNodes().get("literal123").getId());
+
+        val before = root.getChildNodes();
+        root.remove("Literal0");
+        root.then(LiteralNode.literal("extra"));
+        assertEquals(40000, before.size());
+        assertTrue(before.containsKey("Literal0"));
+        assertFalse(before.containsKey("extra"));
+        assertFalse(root.getChildNodes().containsKey("Literal0"));
+        assertEquals("extra", root.parseExecuteContext(StringReader.of("extra"), null).getNodeChain().last().getNode().getId());
+    }
+
     @Test
     public void parse() {
         var result = node.parseExecuteContext(StringReader.of(""), null);
@@ -196,6 +253,87 @@ public class NodeTest {
         assertEquals("HELLO9", result.getArgument("HELLO9"));
     }
 
+    @Test
+    public void remove() {
+        val root = new RootNode<Void, String>("root");
+        root.thenLiteral("hello").setExecutor(context -> "hello");
+        root.thenLiteral("world", "w").setExecutor(context -> "world");
+        val compiled = root.compileCommand(StringReader.of("w"));
+        val modCount = root.getModCount();
+        val snapshot = root.getChildNodes();
+
+        assertNotNull(root.remove("world"));
+        assertNull(root.remove("world"));
+        assertTrue(root.getModCount() > modCount);
+        assertEquals(2, snapshot.size());
+        assertEquals(Collections.singleton("hello"), root.getChildNodes().keySet());
+        assertEquals(0, root.parseExecuteContext(StringReader.of("w"), null).size());
+        assertNull(compiled.execute(null));
+        assertEquals(Collections.singletonList("hello"), root.tab(StringReader.of(""), null));
+        assertEquals("hello", root.execute(StringReader.of("hello"), null));
+
+        val argument = root.thenLiteral("int").thenArgument("number", new IntegerArgument<>());
+        assertSame(argument, root.getChildNodes().get("int").remove("number"));
+        assertNull(root.getChildNodes().get("int").getArgumentNode());
+        root.getChildNodes().get("int").thenLiteral("zero");
+        assertEquals(2, root.parseExecuteContext(StringReader.of("int zero"), null).size());
+    }
+
+    @Test
+    public void requirement() {
+        val root = new RootNode<String, String>("root");
+        root.thenLiteral("help").setExecutor(context -> "help");
+        val admin = root.thenLiteral("admin").setExecutor(context -> "admin");
+        admin.setRequirement("op"::equals);
+        root.thenLiteral("give").thenArgument("amount", new IntegerArgument<String, String>())
+            .setRequirement(source -> !"guest".equals(source))
+            .setExecutor(context -> "give " + context.getArgument("amount"));
+
+        assertEquals(Arrays.asList("help", "give"), root.tab(StringReader.of(""), "guest"));
+        assertEquals(Arrays.asList("help", "admin", "give"), root.tab(StringReader.of(""), "op"));
+        assertNull(root.execute(StringReader.of("admin"), "guest"));
+        assertEquals("admin", root.execute(StringReader.of("admin"), "op"));
+        assertNull(root.execute(StringReader.of("give 1"), "guest"));
+        assertEquals("give 1", root.execute(StringReader.of("give 1"), "op"));
+        assertEquals(Arrays.asList(null, "help"), root.executeAll(Arrays.asList("admin", "help"), input -> "guest"));
+        assertEquals(Arrays.asList("admin", "admin"), root.executeAll(Arrays.asList("admin", "admin"), input -> "op"));
+        assertEquals(Collections.emptyList(), root.tab(StringReader.of("a"), "guest"));
+
+        val views = new AccessViews<>(root, (String source) -> source);
+        val guest = views.get("guest");
+        assertSame(guest, views.get("guest"));
+        assertEquals(Arrays.asList("help", "give"), guest.tab(StringReader.of(""), "guest"));
+        assertEquals(Collections.singletonList("admin"), views.get("op").tab(StringReader.of("a"), "op"));
+        assertEquals("def", guest.execute(StringReader.of("admin"), "guest", context -> "def"));
+        assertEquals("admin", views.get("op").execute(StringReader.of("admin"), "op"));
+        assertEquals(Collections.emptyList(), guest.tab(StringReader.of("give "), "guest"));
+        assertEquals("give 2", views.get("op").execute(StringReader.of("give 2"), "op"));
+
+        admin.setRequirement(null);
+        assertEquals(Arrays.asList("help", "admin", "give"), guest.tab(StringReader.of(""), "guest"));
+        assertEquals("admin", guest.execute(StringReader.of("admin"), "guest"));
+    }
+
+    @Test
+    public void accessViewSnapshot() {
+        val root = new RootNode<String, String>("root");
+        val view = new AccessViews<>(root, (String source) -> source).get("guest");
+        val reentered = new boolean[1];
+        root.thenLiteral("help").setRequirement(source -> {
+            // 模拟并发: 裁剪旧快照期间, 另一线程修改节点树并清空视图缓存
+            if (!reentered[0]) {
+                reentered[0] = true;
+                root.thenLiteral("late");
+                view.tab(StringReader.of(""), source);
+            }
+            return true;
+        });
+        // 本次调用读取的是修改前的快照
+        assertEquals(Collections.singletonList("help"), view.tab(StringReader.of(""), "guest"));
+        assertEquals(Arrays.asList("help", "late"), view.tab(StringReader.of(""), "guest"));
+        assertNotNull(view.parseExecuteContext(StringReader.of("late"), "guest").getNodeChain().last());
+    }
+
     @Test
     public void tab() {
         val suggestions = new ArrayList<String>();
@@ -251,4 +389,129 @@ public class NodeTest {
         assertEquals(suggestions.stream().filter(key -> key.startsWith("allow ")).count(), result.size());
         assertEquals(suggestions.stream().filter(key -> key.startsWith("allow ")).collect(Collectors.toList()), result);
     }
+
+    @Test
+    public void tabLimit() {
+        val full = node.tab(StringReader.of("hel"), null);
+        assertEquals(full.subList(0, 3), node.tab(StringReader.of("hel"), null, 3));
+        assertEquals(full, node.tab(StringReader.of("hel"), null, 1000));
+        assertEquals(node.tab(StringReader.of("hello3 "), null).subList(0, 2), node.tab(StringReader.of("hello3 "), null, 2));
+        assertEquals(Collections.singletonList("world1"), node.tab(StringReader.of("hello2 wor"), null, 1));
+        assertEquals(Collections.emptyList(), node.tab(StringReader.of("hello2 x"), null, 1));
+
+        val sink = new CompletionSink(2);
+        val calls = new int[1];
+        val custom = new RootNode<Void, String>("root").then(
+            ArgumentNode.<Void, Integer, String>argument("int", new IntegerArgument<>()).setSinkTaber((context, remaining, completionSink) -> {
+                for (int index = 0; index < 100; index++) {
+                    calls[0]++;
+                    if (!completionSink.add(remaining + index)) return;
+                }
+            })
+        );
+        custom.parseTabContext(StringReader.of("1"), null).tab(sink);
+        assertEquals(Arrays.asList("10", "11"), sink.getSuggestions());
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    public void argumentKey() {
+        val int1 = ArgumentNode.<Void, Integer, String>argument("int", new IntegerArgument<>());
+        val int2 = ArgumentNode.<Void, Integer, String>argument("int", new IntegerArgument<>());
+        val key1 = int1.key();
+        val key2 = int2.key();
+        int2.setExecutor((context) -> {
+            int sum = context.getArgument(key1) + context.getArgument(key2);
+            return String.valueOf(sum);
+        });
+        val root = new RootNode<Void, String>("root")
+            .then(LiteralNode.<Void, String>literal("add").then(int1.then(int2)));
+        assertEquals(3, int2.getDepth());
+        assertEquals("5", root.execute(StringReader.of("add 2 3"), null));
+
+        val context = root.getChildNodes().get("add").parseExecuteContext(StringReader.of("4 5"), null);
+        assertEquals(4, context.getArgument(key1));
+        assertEquals(5, context.getArgument(key2));
+        assertEquals(5, context.<Integer>getArgument("int"));
+        assertNull(root.parseExecuteContext(StringReader.of("add 2"), null).getArgument(key2));
+    }
+
+    @Test
+    public void primitiveArguments() {
+        val intNode = ArgumentNode.<Void, Integer, String>argument("int", new IntegerArgument<>());
+        val doubleNode = ArgumentNode.<Void, Double, String>argument("double", new DoubleArgument<>());
+        val booleanNode = ArgumentNode.<Void, Boolean, String>argument("boolean", new BooleanArgument<>());
+        val root = new RootNode<Void, String>("root").then(intNode.then(doubleNode.then(booleanNode)));
+
+        val context = root.parseExecuteContext(StringReader.of("12 3.5 TRUE"), null);
+        assertTrue(context.isExecutable());
+        assertEquals(12, context.getInt(intNode.key()));
+        assertEquals(12L, context.getLong("int"));
+        assertEquals(3.5, context.getDouble(doubleNode.key()));
+        assertTrue(context.getBoolean(booleanNode.key()));
+        assertEquals(12, context.<Integer>getArgument("int"));
+        assertEquals(true, context.getArgument("boolean"));
+
+        val failed = root.parseExecuteContext(StringReader.of("12 x"), null);
+        assertFalse(failed.isExecutable());
+        assertNull(failed.getArgument(doubleNode.key()));
+        assertEquals(0, failed.getDouble(doubleNode.key()));
+        assertEquals(3, failed.getInput().getOffset());
+    }
+
+    @Test
+    public void executeAll() {
+        val root = new RootNode<String, String>("root")
+            .then(LiteralNode.<String, String>literal("add").then(
+                ArgumentNode.<String, Integer, String>argument("number", new IntegerArgument<>())
+                    .setExecutor(context -> context.getSource() + "+" + context.getInt("number"))
+            ))
+            .then(LiteralNode.<String, String>literal("ping").setExecutor(context -> context.getSource() + ":pong"));
+
+        val inputs = new ArrayList<String>();
+        for (int index = 0; index < 1000; index++) {
+            switch (index % 4) {
+                case 0:
+                    inputs.add("add " + index);
+                    break;
+                case 1:
+                    inputs.add("  ping");
+                    break;
+                case 2:
+                    inputs.add("ADD x" + index);
+                    break;
+                default:
+                    inputs.add("unknown " + index);
+            }
+        }
+        val expected = inputs.stream()
+            .map(input -> root.execute(StringReader.of(input), String.valueOf(input.length())))
+            .collect(Collectors.toList());
+        assertEquals(expected, root.executeAll(inputs, input -> String.valueOf(input.length())));
+        assertEquals(expected, root.executeAll(inputs, input -> String.valueOf(input.length()), true));
+
+        val contexts = root.parseAll(inputs, input -> null);
+        assertEquals(1000, contexts.size());
+        assertTrue(contexts.get(0).isExecutable());
+        assertEquals(0, contexts.get(0).getInt("number"));
+        assertFalse(contexts.get(2).isExecutable());
+    }
+
+    @Test
+    public void executeAsync() {
+        val caller = Thread.currentThread();
+        val root = new RootNode<String, String>("root")
+            .then(LiteralNode.<String, String>literal("sync").setExecutor(context -> "sync " + (Thread.currentThread() != caller)))
+            .then(LiteralNode.<String, String>literal("async").setAsyncExecutor(context -> CompletableFuture.supplyAsync(() -> "async " + context.getSource())))
+            .then(LiteralNode.<String, String>literal("int").then(
+                ArgumentNode.<String, Integer, String>argument("number", new IntegerArgument<String, String>().setFailExecutor(context -> "fail"))
+            ));
+
+        assertEquals("sync true", root.executeAsync(StringReader.of("sync"), null).join());
+        assertEquals("async a", root.executeAsync(StringReader.of("async"), "a", Runnable::run).join());
+        assertEquals("async b", root.execute(StringReader.of("async"), "b"));
+        assertEquals("fail", root.executeAsync(StringReader.of("int x"), null).join());
+        assertEquals("def", root.executeAsync(StringReader.of("unknown"), null, Runnable::run, context -> "def").join());
+        assertNotNull(AsyncExecutors.defaultExecutor());
+    }
 }
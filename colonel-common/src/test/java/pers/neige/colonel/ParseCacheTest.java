@@ -0,0 +1,55 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.arguments.impl.MapArgument;
+import pers.neige.colonel.context.ParseCache;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseCacheTest {
+    @Test
+    public void cache() {
+        val params = new HashMap<String, Integer>();
+        params.put("test1", 1);
+        val cache = new ParseCache<Void, String>(2);
+        val root = new RootNode<Void, String>("root")
+            .then(LiteralNode.<Void, String>literal("int").then(
+                ArgumentNode.<Void, Integer, String>argument("int", new IntegerArgument<>()).setExecutor((context) -> "int: " + context.getArgument("int"))
+            ))
+            .then(LiteralNode.<Void, String>literal("map").then(
+                ArgumentNode.argument("map", new MapArgument<>(() -> params))
+            ))
+            .setParseCache(cache);
+
+        assertEquals("int: 1", root.execute(StringReader.of("int 1"), null));
+        assertEquals("int: 1", root.execute(StringReader.of("int 1"), null));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        val reader = StringReader.of("int 2 extra");
+        val context = root.parseExecuteContext(reader, null);
+        val cached = root.parseExecuteContext(StringReader.of("int 2 extra"), null);
+        assertEquals(context.getInput().getOffset(), cached.getInput().getOffset());
+        assertEquals(2, cached.<Integer>getArgument("int"));
+        assertEquals(2, cache.getHitCount());
+
+        root.parseExecuteContext(StringReader.of("map test1"), null);
+        assertEquals(2, cache.size());
+
+        root.parseExecuteContext(StringReader.of("int 3"), null);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        root.then(LiteralNode.literal("int 1"));
+        assertEquals("int 1", root.parseExecuteContext(StringReader.of("int 1"), null).getArgument("int 1"));
+        assertEquals(1, cache.size());
+    }
+}
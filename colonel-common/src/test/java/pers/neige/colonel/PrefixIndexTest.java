@@ -0,0 +1,52 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.trie.PrefixIndex;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+public class PrefixIndexTest {
+    @Test
+    public void match() {
+        val names = Arrays.asList("world", "Hello2", "hello1", "HELLO", "help", "hello1");
+        val index = new PrefixIndex(names);
+        assertEquals(names, index.match(""));
+        assertEquals(Arrays.asList("Hello2", "hello1", "HELLO", "help", "hello1"), index.match("he"));
+        assertEquals(Arrays.asList("Hello2", "hello1", "HELLO", "hello1"), index.match("HELLO"));
+        assertEquals(Arrays.asList("hello1", "hello1"), index.match("hello1"));
+        assertEquals(Collections.singletonList("world"), index.match("w"));
+        assertEquals(Collections.emptyList(), index.match("x"));
+        assertEquals(Collections.emptyList(), PrefixIndex.EMPTY.match("x"));
+    }
+
+    @Test
+    public void matchLimit() {
+        val names = Arrays.asList("world", "Hello2", "hello1", "HELLO", "help", "hello1");
+        val index = new PrefixIndex(names);
+        assertEquals(Arrays.asList("Hello2", "hello1"), index.match("he", 2));
+        assertEquals(Arrays.asList("Hello2", "hello1", "HELLO"), index.match("hello", 3));
+        assertEquals(Collections.singletonList("hello1"), index.match("hello1", 1));
+        assertEquals(Collections.emptyList(), index.match("he", 0));
+
+        // 原始顺序与排序后的顺序相反
+        val many = new ArrayList<String>();
+        for (int i = 200000; i > 0; i--) {
+            many.add("name" + i);
+        }
+        val large = new PrefixIndex(many);
+        assertEquals(many.subList(0, 3), large.match("NAME", 3));
+        assertEquals(Arrays.asList("name199999", "name199998"), large.match("name1999", 2));
+        assertTimeout(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 10000; i++) {
+                large.match("n", 10);
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package pers.neige.colonel;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.context.Context;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.script.ScriptPosition;
+import pers.neige.colonel.script.ScriptRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptRunnerTest {
+    private static Node<Void, Integer> root() {
+        return new RootNode<Void, Integer>("root")
+            .then(LiteralNode.<Void, Integer>literal("add").then(
+                ArgumentNode.<Void, Integer, Integer>argument("number", new IntegerArgument<>())
+                    .setExecutor(context -> context.<Integer>getArgument("number"))
+            ))
+            .then(LiteralNode.<Void, Integer>literal("boom").setNullExecutor(context -> {
+                throw new IllegalStateException("boom");
+            }));
+    }
+
+    @Test
+    public void run(@TempDir Path dir) throws IOException {
+        val file = dir.resolve("script.txt");
+        Files.write(file, "﻿add 1\r\n\nadd x\nboom\nadd 2\nadd 3".getBytes(StandardCharsets.UTF_8));
+
+        val results = new ArrayList<String>();
+        val progress = new ArrayList<ScriptPosition>();
+        // 窗口取 3 字节, 保证每一行都跨越窗口边界
+        val runner = ScriptRunner.<Void, Integer>builder().root(root()).windowSize(3).progressInterval(2).build();
+        val result = runner.run(file, null, listener(results, progress));
+        assertEquals(3, result.getExecuted());
+        assertEquals(2, result.getFailed());
+        assertTrue(result.isCompleted());
+        assertEquals(new ScriptPosition(6, Files.size(file)), result.getEnd());
+        assertEquals(Arrays.asList("0=1", "2=null", "3!boom", "4=2", "5=3"), results);
+        assertEquals(new ScriptPosition(2, 11), progress.get(0));
+
+        results.clear();
+        val resumed = runner.run(file, null, progress.get(1), listener(results, new ArrayList<>()));
+        assertEquals(Arrays.asList("4=2", "5=3"), results);
+        assertEquals(result.getEnd(), resumed.getEnd());
+
+        results.clear();
+        runner.run(file, null, 5, listener(results, new ArrayList<>()));
+        assertEquals(Arrays.asList("5=3"), results);
+
+        results.clear();
+        val stopped = ScriptRunner.<Void, Integer>builder().root(root()).stopOnFailure(true).build()
+            .run(file, null, listener(results, new ArrayList<>()));
+        assertFalse(stopped.isCompleted());
+        assertEquals(3, stopped.getEnd().getLine());
+        assertEquals(Arrays.asList("0=1", "2=null"), results);
+    }
+
+    @Test
+    public void charset(@TempDir Path dir) throws IOException {
+        val file = dir.resolve("script.txt");
+        Files.write(file, "add 1\nadd 2".getBytes(StandardCharsets.UTF_16LE));
+        // UTF-16 中换行符不是单字节 0x0A, 按字节切分会破坏字符
+        val runner = ScriptRunner.<Void, Integer>builder().root(root()).charset(StandardCharsets.UTF_16LE).build();
+        assertThrows(IllegalArgumentException.class, () -> runner.run(file, null, listener(new ArrayList<>(), new ArrayList<>())));
+
+        val results = new ArrayList<String>();
+        Files.write(file, "add 1\nadd 2".getBytes(StandardCharsets.ISO_8859_1));
+        ScriptRunner.<Void, Integer>builder().root(root()).charset(StandardCharsets.ISO_8859_1).build()
+            .run(file, null, listener(results, new ArrayList<>()));
+        assertEquals(Arrays.asList("0=1", "1=2"), results);
+    }
+
+    private static ScriptRunner.Listener<Void, Integer> listener(List<String> results, List<ScriptPosition> progress) {
+        return new ScriptRunner.Listener<Void, Integer>() {
+            @Override
+            public void onLine(long line, Context<Void, Integer> context, Integer result) {
+                results.add(line + "=" + result);
+            }
+
+            @Override
+            public void onError(long line, String text, RuntimeException error) {
+                results.add(line + "!" + error.getMessage());
+            }
+
+            @Override
+            public void onProgress(ScriptPosition position) {
+                progress.add(position);
+            }
+        };
+    }
+}
@@ -7,6 +7,9 @@ import org.junit.jupiter.api.Test;
 import pers.neige.colonel.reader.StringReader;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,6 +63,92 @@ public class StringReaderTest {
         assertEquals(0, reader.getOffset());
     }
 
+    @Test
+    @Order(1)
+    public void charClasses() {
+        val separators = new HashSet<>(Arrays.asList(' ', ',', '，'));
+        val reader = StringReader.of("a,b，c\\，d e", separators, '\\', true);
+        assertTrue(reader.isSeparator(','));
+        assertTrue(reader.isSeparator('，'));
+        assertFalse(reader.isSeparator('\\'));
+        assertFalse(reader.isSeparator('。'));
+        assertTrue(reader.containsSeparator(Collections.singleton('，')));
+        assertFalse(reader.containsSeparator(Collections.singleton('a')));
+        assertEquals("a", reader.readString());
+        reader.skipSeparator();
+        assertEquals("b", reader.readString());
+        reader.skipSeparator();
+        assertEquals("c，d", reader.readString());
+
+        separators.add('|');
+        assertFalse(reader.isSeparator('|'));
+        assertSame(reader.getCharClasses(), reader.copy().getCharClasses());
+        assertSame(reader.getCharClasses(), reader.newReaderWithSameConfig("x").getCharClasses());
+        assertSame(StringReader.of("a").getCharClasses(), StringReader.of("b").copy().getCharClasses());
+    }
+
+    @Test
+    @Order(1)
+    public void readLowerCaseString() {
+        val inputs = new String[]{"hello", "HeLLo world", "HELLO\\ World", "ÄBC def", "Item", "mixed\\Case x", ""};
+        for (val input : inputs) {
+            val expected = StringReader.of(input);
+            val actual = StringReader.of(input);
+            assertEquals(expected.readString().toLowerCase(), actual.readLowerCaseString());
+            assertEquals(expected.getOffset(), actual.getOffset());
+        }
+    }
+
+    @Test
+    @Order(1)
+    public void ofArguments() {
+        val inputs = new String[][]{{}, {""}, {"give"}, {"give", "a\\", "b"}, {"", "give", "", "64", ""}, {"", ""}};
+        for (val args : inputs) {
+            val text = String.join(" ", args);
+            assertEquals(text, StringReader.ofArguments(args, ' ', '\\', false).getString());
+            assertEquals(text.trim(), StringReader.ofArguments(args, ' ', '\\', true).getString());
+        }
+        val args = new String[]{"", "give"};
+        assertSame(args[1], StringReader.ofArguments(args, ' ', '\\', true).getString());
+        val reader = StringReader.ofArguments(new String[]{"a\\", "b", "c"}, ' ', '\\', false);
+        assertEquals("a b", reader.readString());
+        reader.skipSeparator();
+        assertEquals("c", reader.readString());
+    }
+
+    @Test
+    @Order(1)
+    public void readToken() {
+        val inputs = new String[]{"hello", "hello hello", "hello\\ hello", "hello\\\\ hello", "hello\\hello", "hello\\", "a\\ b\\ c d", ""};
+        for (val input : inputs) {
+            val expected = StringReader.of(input);
+            val actual = StringReader.of(input);
+            val token = actual.readToken();
+            assertEquals(expected.readString(), token.toString());
+            assertEquals(expected.getOffset(), actual.getOffset());
+            assertEquals(expected.getOffset(), token.getEnd());
+        }
+
+        val reader = StringReader.of("Hello world\\ wide");
+        var token = reader.peekToken();
+        assertEquals(0, reader.getOffset());
+        assertFalse(token.isEscaped());
+        assertTrue(token.contentEquals("Hello"));
+        assertTrue(token.equalsIgnoreCase("HELLO"));
+        assertFalse(token.contentEquals("hello"));
+        assertSame(token, reader.readToken());
+        reader.skipSeparator();
+        token = reader.readToken();
+        assertTrue(token.isEscaped());
+        assertEquals(10, token.length());
+        assertEquals(' ', token.charAt(5));
+        assertTrue(token.contentEquals("world wide"));
+
+        val builder = new StringBuilder("> ");
+        assertEquals(4, StringReader.of("a\\ b\\\\ c").readInto(builder));
+        assertEquals("> a b\\", builder.toString());
+    }
+
     @Test
     @Order(2)
     public void readIntegerString() {
@@ -0,0 +1,150 @@
+package pers.neige.colonel;
+
+import lombok.NonNull;
+import lombok.val;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import pers.neige.colonel.arguments.ParseResult;
+import pers.neige.colonel.arguments.impl.IntegerArgument;
+import pers.neige.colonel.arguments.impl.StringArgument;
+import pers.neige.colonel.context.NodeChain;
+import pers.neige.colonel.node.Node;
+import pers.neige.colonel.node.TabSession;
+import pers.neige.colonel.node.impl.ArgumentNode;
+import pers.neige.colonel.node.impl.LiteralNode;
+import pers.neige.colonel.node.impl.RootNode;
+import pers.neige.colonel.reader.StringReader;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TabSessionTest {
+    private static final List<String> INPUTS = Arrays.asList(
+        "",
+        "h",
+        "hello",
+        "hello ",
+        "hello 1",
+        "hello 12",
+        "hello 12 ",
+        "hello 12 w",
+        "hello 12 world",
+        "hello 13 world",
+        "allow",
+        "allow ",
+        "allow separator",
+        "allow separator literal",
+        "allow separator literal ",
+        "allow separator literal t",
+        "allow ",
+        "allow t",
+        "allow test ",
+        "hello 12 world "
+    );
+
+    private static Node<Void, String> tree(int[] parseCount) {
+        val counter = new IntegerArgument<Void, String>() {
+            @Override
+            public @NonNull ParseResult<Integer> parse(@NonNull NodeChain<Void, String> nodeChain, @NonNull StringReader input, @Nullable Void source) {
+                parseCount[0]++;
+                return super.parse(nodeChain, input, source);
+            }
+        };
+        return new RootNode<Void, String>("root")
+            .then(LiteralNode.<Void, String>literal("hello").then(
+                ArgumentNode.<Void, Integer, String>argument("int", counter).then(
+                    LiteralNode.<Void, String>literal("world").setExecutor((context) -> "world " + context.getArgument("int"))
+                )
+            ))
+            .then(LiteralNode.<Void, String>literal("allow").then(
+                ArgumentNode.<Void, String, String>argument("string", new StringArgument<>()).then(LiteralNode.literal("end"))
+            ))
+            .then(LiteralNode.<Void, String>literal("allow separator literal").then(LiteralNode.literal("tail")));
+    }
+
+    @Test
+    public void tab() {
+        val node = tree(new int[1]);
+        val session = new TabSession<>(node, null);
+        for (val input : INPUTS) {
+            assertEquals(node.tab(StringReader.of(input), null), session.tab(StringReader.of(input)), input);
+            assertEquals(node.execute(StringReader.of(input), null), session.execute(StringReader.of(input)), input);
+        }
+    }
+
+    @Test
+    public void reuse() {
+        val parseCount = new int[1];
+        val session = new TabSession<>(tree(parseCount), null);
+        session.tab(StringReader.of("hello 12 "));
+        assertEquals(1, parseCount[0]);
+        session.tab(StringReader.of("hello 12 w"));
+        session.tab(StringReader.of("hello 12 wo"));
+        assertEquals(1, parseCount[0]);
+        assertEquals("world 12", session.execute(StringReader.of("hello 12 world")));
+        assertEquals(1, parseCount[0]);
+        session.tab(StringReader.of("hello 13 "));
+        assertEquals(2, parseCount[0]);
+    }
+
+    @Test
+    public void tabAsync() {
+        val taber = new AtomicReference<ArgumentNode.AsyncTaber<Void, String>>();
+        val node = new RootNode<Void, String>("root")
+            .then(LiteralNode.<Void, String>literal("give").then(
+                ArgumentNode.<Void, String, String>argument("player", new StringArgument<>())
+                    .setAsyncTaber((context, remaining, sink) -> taber.get().tab(context, remaining, sink))
+            ));
+        val session = new TabSession<>(node, null);
+        assertEquals(Collections.singletonList("give"), node.tabAsync(StringReader.of("gi"), null, 10, 1, TimeUnit.SECONDS).join());
+
+        taber.set((context, remaining, sink) -> {
+            sink.addAll(Arrays.asList("alice", "bob", "alex"));
+            return CompletableFuture.completedFuture(null);
+        });
+        assertEquals(Arrays.asList("alice", "bob", "alex"), session.tabAsync(StringReader.of("give "), 10, 1, TimeUnit.SECONDS).join());
+
+        // 超时且没有部分结果时回退到缓存
+        taber.set((context, remaining, sink) -> new CompletableFuture<>());
+        assertEquals(Arrays.asList("alice", "alex"), session.tabAsync(StringReader.of("give a"), 10, 20, TimeUnit.MILLISECONDS).join());
+
+        // 超时时返回部分结果
+        taber.set((context, remaining, sink) -> {
+            sink.add("partial");
+            return new CompletableFuture<>();
+        });
+        assertEquals(Collections.singletonList("partial"), session.tabAsync(StringReader.of("give p"), 10, 20, TimeUnit.MILLISECONDS).join());
+
+        // 新请求取消上一次请求
+        val hung = new CompletableFuture<Void>();
+        taber.set((context, remaining, sink) -> hung);
+        val superseded = session.tabAsync(StringReader.of("give b"), 10, 0, TimeUnit.SECONDS);
+        taber.set((context, remaining, sink) -> {
+            sink.add("bob");
+            return CompletableFuture.completedFuture(null);
+        });
+        assertEquals(Collections.singletonList("bob"), session.tabAsync(StringReader.of("give bo"), 10, 0, TimeUnit.SECONDS).join());
+        assertTrue(superseded.isCompletedExceptionally());
+        assertTrue(hung.isCancelled());
+    }
+
+    @Test
+    public void revokeBetweenTabAndExecute() {
+        val allowed = new boolean[]{true};
+        val root = new RootNode<String, String>("root");
+        root.thenLiteral("admin").setRequirement(source -> allowed[0])
+            .then(LiteralNode.<String, String>literal("ban").setExecutor(context -> "banned"));
+        val session = new TabSession<>(root, "p");
+        assertEquals(Collections.singletonList("ban"), session.tab(StringReader.of("admin b")));
+        allowed[0] = false;
+        assertNull(root.execute(StringReader.of("admin ban"), "p"));
+        assertNull(session.execute(StringReader.of("admin ban")));
+        assertEquals(Collections.emptyList(), session.tab(StringReader.of("admin b")));
+    }
+}